@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "org.example"
@@ -12,10 +13,22 @@ repositories {
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
     implementation("org.knowm.xchart:xchart:3.8.0")
 
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Benchmarks live in src/jmh/java and run with "gradle jmh". Narrow a run down from the command line, e.g.
+// gradle jmh -Pjmh.includes=CrossoverBenchmark
+jmh {
+    jmhVersion.set("1.37")
+    (findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.set(listOf("gc")) // allocations per operation next to the times
+}
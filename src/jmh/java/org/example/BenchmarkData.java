@@ -0,0 +1,46 @@
+package org.example;
+
+
+/**
+ * Random instances and populations shared by the benchmarks. Everything is seeded, so every fork measures
+ * the same data.
+ */
+final class BenchmarkData {
+
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+
+    private BenchmarkData() {
+    }
+
+
+    static DistanceMatrix randomCities(int numberOfCities, long seed) {
+        // Cities at random points of the same 800x600 area the animation uses
+        Rng random = new Rng(seed);
+        double[] xs = new double[numberOfCities];
+        double[] ys = new double[numberOfCities];
+        for (int i = 0; i < numberOfCities; i++) {
+            xs[i] = random.nextInt(WIDTH);
+            ys[i] = random.nextInt(HEIGHT);
+        }
+        return new DistanceMatrix(xs, ys);
+    }
+
+
+    static int[] randomTours(int count, int numberOfCities, Rng random) {
+        // count random tours of numberOfCities cities, stored back to back like a population buffer
+        int[] tours = new int[count * numberOfCities];
+        for (int t = 0; t < count; t++) {
+            int offset = t * numberOfCities;
+            for (int i = 0; i < numberOfCities; i++) tours[offset + i] = i;
+            for (int i = numberOfCities - 1; i > 0; i--) {
+                int k = random.nextInt(i + 1);
+                int tmp = tours[offset + i];
+                tours[offset + i] = tours[offset + k];
+                tours[offset + k] = tmp;
+            }
+        }
+        return tours;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Creating one child from two random parents with each crossover operator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrossoverBenchmark {
+
+    @Param({"30", "1000", "10000", "100000"})
+    public int cities;
+
+    @Param({"ORDER", "PARTIALLY_MAPPED", "CYCLE", "EDGE_RECOMBINATION"})
+    public CrossoverType crossoverType;
+
+    private Crossover crossover;
+    private int[] routes; // parent1, parent2 and the child, back to back
+    private Rng random;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Rng(3);
+        routes = BenchmarkData.randomTours(3, cities, random);
+        crossover = crossoverType.create(cities);
+    }
+
+
+    @Benchmark
+    public int[] crossover() {
+        crossover.crossover(routes, 0, cities, routes, 2 * cities, cities, random);
+        return routes;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Evaluating the length of one tour (the old getDistance). Up to 8192 cities this reads the precomputed
+ * matrix, beyond that distances are computed from the coordinates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DistanceBenchmark {
+
+    @Param({"30", "1000", "10000", "100000"})
+    public int cities;
+
+    private DistanceMatrix distanceMatrix;
+    private int[] tour;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        distanceMatrix = BenchmarkData.randomCities(cities, 1);
+        tour = BenchmarkData.randomTours(1, cities, new Rng(2));
+    }
+
+
+    @Benchmark
+    public double tourLength() {
+        return distanceMatrix.tourLength(tour, 0, cities);
+    }
+}
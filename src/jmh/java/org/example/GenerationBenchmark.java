@@ -0,0 +1,55 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * One full generation (evolvePopulation): selection, crossover, mutation and evaluation of every individual,
+ * with the default operators on a single thread.
+ * <p>
+ * The grid is kept small enough for a default heap; widen it when running the jar directly,
+ * e.g. {@code java -jar build/libs/*-jmh.jar GenerationBenchmark -p cities=100000 -p populationSize=10000}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GenerationBenchmark {
+
+    @Param({"30", "1000", "10000"})
+    public int cities;
+
+    @Param({"80", "1000"})
+    public int populationSize;
+
+    @Param({"1"})
+    public int threads;
+
+    private GeneticAlgorithm ga;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SolverConfig config = SolverConfig.builder()
+                .populationSize(populationSize)
+                .eliteSize(populationSize / 10)
+                .threads(threads)
+                .seed(6)
+                .build();
+        ga = new GeneticAlgorithm(BenchmarkData.randomCities(cities, 1), config);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ga.close();
+    }
+
+
+    @Benchmark
+    public double evolvePopulation() {
+        ga.evolvePopulation();
+        return ga.getBestDistanceInPop();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Mutating a single route (mutate) and a whole population buffer (mutatePopulation) with each mutation
+ * operator, including the delta evaluation of the route distance.
+ * <p>
+ * The population grid is kept small enough for a default heap; widen it when running the jar directly,
+ * e.g. {@code java -jar build/libs/*-jmh.jar MutationBenchmark -p populationSize=10000}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MutationBenchmark {
+
+    @Param({"30", "1000", "10000"})
+    public int cities;
+
+    @Param({"80", "1000"})
+    public int populationSize;
+
+    @Param({"SWAP", "INVERSION"})
+    public MutationType mutationType;
+
+    @Param({"0.02"})
+    public double mutationRate;
+
+    private DistanceMatrix distanceMatrix;
+    private Mutation mutation;
+    private int[] population;
+    private Rng random;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Rng(4);
+        distanceMatrix = BenchmarkData.randomCities(cities, 1);
+        population = BenchmarkData.randomTours(populationSize, cities, random);
+        mutation = mutationType.create();
+    }
+
+
+    @Benchmark
+    public double mutate() {
+        return mutation.mutate(population, 0, cities, mutationRate, random, distanceMatrix);
+    }
+
+
+    @Benchmark
+    public double mutatePopulation() {
+        double delta = 0;
+        for (int i = 0; i < populationSize; i++) {
+            delta += mutation.mutate(population, i * cities, cities, mutationRate, random, distanceMatrix);
+        }
+        return delta;
+    }
+}
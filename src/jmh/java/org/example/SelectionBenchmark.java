@@ -0,0 +1,54 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Preparing the selection tables for a generation (what updateCumulativeProportions used to do) and
+ * selecting a single parent, for every selection scheme. Tournaments of more than two draw their candidates
+ * through a scratch array; the gc profiler the build runs the benchmarks with shows that picks allocate
+ * nothing ("gc.alloc.rate.norm" of 0 B/op).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SelectionBenchmark {
+
+    @Param({"80", "1000", "10000"})
+    public int populationSize;
+
+    @Param({"MIXED", "ROULETTE", "ALIAS", "STOCHASTIC_UNIVERSAL", "TOURNAMENT"})
+    public SelectionType selectionType;
+
+    @Param({"2", "7"})
+    public int tournamentSize;
+
+    private Selection selection;
+    private double[] routeDistances;
+    private Rng random;
+
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Rng(5);
+        routeDistances = new double[populationSize];
+        for (int i = 0; i < populationSize; i++) routeDistances[i] = 1000 + random.nextDouble() * 9000;
+        selection = selectionType.create(populationSize, tournamentSize).forWorker();
+        selection.prepare(routeDistances, random);
+    }
+
+
+    @Benchmark
+    public Selection prepare() {
+        selection.prepare(routeDistances, random);
+        return selection;
+    }
+
+
+    @Benchmark
+    public int select() {
+        return selection.select(routeDistances, random);
+    }
+}
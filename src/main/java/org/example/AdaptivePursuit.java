@@ -0,0 +1,102 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Adaptive pursuit over a fixed set of alternatives ("arms"), such as the crossover operators: every arm is
+ * chosen with its own probability, and after every generation the probabilities move towards the arm that
+ * has recently delivered the most improvement.
+ * <p>
+ * Each arm keeps a quality estimate, an exponential average of the mean reward it earned per generation.
+ * The probability of the best arm is then pulled towards {@code maxProbability} and all others towards
+ * {@code minProbability}, so the probabilities always sum up to 1 and no arm is ever starved: when the
+ * search moves on and another operator becomes more useful, it still gets tried often enough to notice.
+ * <p>
+ * {@link #choose} may be called by several workers at once; {@link #update} only between generations.
+ */
+final class AdaptivePursuit {
+
+    private static final double ADAPTATION_RATE = 0.1; // weight of the latest generation in the quality
+    private static final double LEARNING_RATE = 0.1; // how fast the probabilities follow the best arm
+    private static final double MIN_SHARE = 0.2; // probability mass spread evenly over all arms
+
+    private final double[] probabilities;
+    private final double[] qualities;
+    private final double minProbability;
+    private final double maxProbability;
+
+
+    AdaptivePursuit(int arms) {
+        this.probabilities = new double[arms];
+        this.qualities = new double[arms];
+        this.minProbability = MIN_SHARE / arms;
+        this.maxProbability = 1 - (arms - 1) * minProbability;
+        Arrays.fill(probabilities, 1.0 / arms); // starting without preference
+    }
+
+
+    int arms() {
+        return probabilities.length;
+    }
+
+
+    double probability(int arm) {
+        return probabilities[arm];
+    }
+
+
+    int choose(Rng random) {
+        // Picking an arm by walking the cumulative probabilities; there are only a handful of arms
+        double u = random.nextDouble();
+        int last = probabilities.length - 1;
+        for (int arm = 0; arm < last; arm++) {
+            u -= probabilities[arm];
+            if (u < 0) return arm;
+        }
+        return last;
+    }
+
+
+    /**
+     * Updates the arms from the rewards of one generation: {@code rewards[first + a]} is the summed reward
+     * of arm {@code a} over its {@code counts[first + a]} applications. Arms that were not applied keep
+     * their quality.
+     */
+    void update(double[] rewards, int[] counts, int first) {
+        boolean applied = false;
+        for (int arm = 0; arm < qualities.length; arm++) {
+            int count = counts[first + arm];
+            if (count == 0) continue;
+            qualities[arm] += ADAPTATION_RATE * (rewards[first + arm] / count - qualities[arm]);
+            applied = true;
+        }
+        if (!applied) return;
+        int best = 0;
+        for (int arm = 1; arm < qualities.length; arm++) {
+            if (qualities[arm] > qualities[best]) best = arm;
+        }
+        for (int arm = 0; arm < probabilities.length; arm++) {
+            double target = arm == best ? maxProbability : minProbability;
+            probabilities[arm] += LEARNING_RATE * (target - probabilities[arm]);
+        }
+    }
+
+
+    int stateBytes() { // size of what saveState() writes
+        return 2 * probabilities.length * Double.BYTES;
+    }
+
+
+    void saveState(ByteBuffer buffer) {
+        for (double probability : probabilities) buffer.putDouble(probability);
+        for (double quality : qualities) buffer.putDouble(quality);
+    }
+
+
+    void restoreState(ByteBuffer buffer) {
+        for (int arm = 0; arm < probabilities.length; arm++) probabilities[arm] = buffer.getDouble();
+        for (int arm = 0; arm < qualities.length; arm++) qualities[arm] = buffer.getDouble();
+    }
+}
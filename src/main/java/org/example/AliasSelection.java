@@ -0,0 +1,70 @@
+package org.example;
+
+
+/**
+ * Fitness proportionate selection with an O(1) pick, using Vose's alias method.
+ * <p>
+ * The weights (inverse route distances) are spread over one column per individual, each column holding at
+ * most two individuals: its own with probability {@code probability[i]} and an "alias" for the rest. Building
+ * the table is linear; a pick is one random column and one coin flip.
+ */
+public class AliasSelection implements Selection {
+
+    private final double[] probability;
+    private final int[] alias;
+    private final double[] scaled; // weights scaled so that their mean is 1
+    private final int[] small; // work lists of columns below and above the mean
+    private final int[] large;
+
+
+    public AliasSelection(int populationSize) {
+        probability = new double[populationSize];
+        alias = new int[populationSize];
+        scaled = new double[populationSize];
+        small = new int[populationSize];
+        large = new int[populationSize];
+    }
+
+
+    @Override
+    public void prepare(double[] routeDistances, Rng random) {
+        int n = probability.length;
+        double total = 0;
+        for (int i = 0; i < n; i++) total += 1 / routeDistances[i];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = n / routeDistances[i] / total;
+            if (scaled[i] < 1) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        // Filling every small column up with a piece of a large one:
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+        // Whatever is left is full up to rounding error:
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1;
+            alias[i] = i;
+        }
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, Rng random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
@@ -0,0 +1,390 @@
+package org.example;
+
+import org.knowm.xchart.BitmapEncoder;
+import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYSeries;
+import org.knowm.xchart.style.markers.SeriesMarkers;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Exports a {@link TspSolver} run as image files, without ever making the solver wait for rendering or I/O.
+ * <p>
+ * Every {@code everyNGenerations} generations the solver thread copies the best route into one of a fixed
+ * number of recycled buffers and queues it. A background writer thread takes the queued frames in batches,
+ * renders them as route charts and appends them to a PNG sequence or a streamed animated GIF; it also redraws
+ * the progress chart of the sampled distances now and then. When all buffers are in the queue because the
+ * writer cannot keep up, new frames are dropped instead of blocking.
+ * <p>
+ * All files of a run share its run ID ({@code <runId>-route.gif}, {@code <runId>-route-<generation>.png},
+ * {@code <runId>-route.png} with the final route, {@code <runId>-progress.png}, ...), so nothing has to scan
+ * the output directory to find a free name. Every file appears atomically under its name once it is complete:
+ * charts are renamed from a temporary file, and the GIF is streamed into one that is renamed by
+ * {@link #close()}. Call {@link #close()} at the end to write what is still queued and finish the files.
+ */
+public class ChartExporter implements SolverListener, AutoCloseable {
+
+    public enum FrameFormat {
+        NONE, // no route frames, only the progress chart and exported charts
+        PNG, // one PNG file per frame
+        GIF // one animated GIF, written frame by frame
+    }
+
+    private static final int QUEUE_CAPACITY = 16; // route buffers, i.e. frames in flight at most
+    private static final long PROGRESS_INTERVAL_NANOS = 5_000_000_000L; // least time between progress charts
+    private static final int GIF_FRAME_DELAY_MILLIS = 100;
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final String runId;
+    private final double[] xs; // null if the instance has no coordinates; then no route frames are made
+    private final double[] ys;
+    private final String settings; // run parameters shown in the title
+    private final int everyNGenerations;
+    private final FrameFormat frameFormat;
+    private final ExecutorService writerThread;
+
+    // Hand-over between the solver thread and the writer thread:
+    private final BlockingQueue<Frame> frames = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<int[]> freeBuffers = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private int allocatedBuffers; // only touched by the solver thread
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicInteger droppedFrames = new AtomicInteger();
+    private final AtomicInteger writtenFrames = new AtomicInteger();
+    private volatile SolverMetrics metrics; // receives the render times, if set
+
+    // Only touched by the writer thread:
+    private final XYChart routeChart;
+    private final XYChart progressChart;
+    private double[] sampleGenerations = new double[64]; // generation, current best and best distance of every
+    private double[] sampleCurrentBest = new double[64]; // frame that reached the writer
+    private double[] sampleBest = new double[64];
+    private int samples;
+    private long lastProgressTime;
+    private ImageWriter gifWriter; // null until the first GIF frame
+    private ImageOutputStream gifOutput;
+
+
+    public ChartExporter(Path directory, String runId, double[] xs, double[] ys, int width, int height,
+                         String settings, int everyNGenerations, FrameFormat frameFormat) throws IOException {
+        if (everyNGenerations < 1) throw new IllegalArgumentException("everyNGenerations must be positive");
+        if ((xs == null) != (ys == null)) throw new IllegalArgumentException("Give both coordinate arrays or neither");
+        this.directory = directory;
+        this.runId = runId;
+        this.xs = xs;
+        this.ys = ys;
+        this.settings = settings;
+        this.everyNGenerations = everyNGenerations;
+        this.frameFormat = xs == null ? FrameFormat.NONE : frameFormat;
+        Files.createDirectories(directory);
+        routeChart = xs == null ? null : RouteChartListener.createChart(xs, ys, width, height);
+        progressChart = new XYChart(width, height);
+        progressChart.setTitle(runId + "   " + settings);
+        progressChart.setXAxisTitle("Generation");
+        progressChart.setYAxisTitle("Distance");
+        writerThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chart-exporter");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY); // rendering should yield to the solver on a busy machine
+            return thread;
+        });
+        lastProgressTime = System.nanoTime(); // the first progress chart once there is something to show
+    }
+
+
+    /**
+     * A run ID that sorts by start time, e.g. {@code 20240131-142501-3f9a}; the random suffix keeps runs
+     * started in the same second apart.
+     */
+    public static String newRunId() {
+        return LocalDateTime.now().format(RUN_ID_FORMAT)
+                + String.format("-%04x", ThreadLocalRandom.current().nextInt(1 << 16));
+    }
+
+
+    public String getRunId() {
+        return runId;
+    }
+
+
+    public int getDroppedFrames() { // frames skipped because the writer was behind
+        return droppedFrames.get();
+    }
+
+
+    public int getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void onGeneration(int generation, double currentBestDistance, double bestDistance,
+                             int[] bestRoute, int genWithBestDistance) {
+        if (generation % everyNGenerations != 0) return;
+        int[] buffer = null;
+        if (frameFormat != FrameFormat.NONE) { // the progress chart alone needs no route
+            buffer = pollBuffer(bestRoute.length);
+            if (buffer == null) { // every buffer is waiting for the writer: dropping this frame
+                droppedFrames.incrementAndGet();
+                return;
+            }
+            System.arraycopy(bestRoute, 0, buffer, 0, bestRoute.length);
+        }
+        if (!frames.offer(new Frame(buffer, generation, currentBestDistance, bestDistance, genWithBestDistance))) {
+            if (buffer != null) freeBuffers.offer(buffer); // only happens without buffers, i.e. without frames
+            droppedFrames.incrementAndGet();
+            return;
+        }
+        if (drainScheduled.compareAndSet(false, true)) writerThread.execute(this::drain);
+    }
+
+
+    @Override
+    public void onFinish(SolverResult result) {
+        // The final state as the last frame, even if it does not fall on everyNGenerations, and as the route
+        // chart; waiting for a buffer is fine now that the run is over
+        int[] bestRoute = result.getBestRoute();
+        int[] buffer = null;
+        if (routeChart != null) {
+            try {
+                buffer = pollBuffer(bestRoute.length);
+                if (buffer == null) buffer = freeBuffers.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            System.arraycopy(bestRoute, 0, buffer, 0, bestRoute.length);
+        }
+        Frame last = new Frame(buffer, result.getGenerations() - 1, Double.NaN, result.getBestDistance(),
+                result.getGenWithBestDistance());
+        writerThread.execute(() -> {
+            drain();
+            writeFrames(List.of(last)); // which leaves the final route plotted on the route chart
+            if (routeChart != null) writeChart(routeChart, "route");
+            writeProgressChart(); // a final one, however recent the last one is
+        });
+    }
+
+
+    private int[] pollBuffer(int length) {
+        // Solver thread: a free route buffer, allocating a new one while there are fewer than QUEUE_CAPACITY;
+        // null if all of them are waiting for the writer
+        int[] buffer = freeBuffers.poll();
+        if (buffer == null && allocatedBuffers < QUEUE_CAPACITY) {
+            buffer = new int[length];
+            allocatedBuffers++;
+        }
+        return buffer;
+    }
+
+
+    /**
+     * Saves {@code chart} as {@code <runId>-<name>.png} on the writer thread, after everything queued before.
+     * Rendering is not thread-safe, so the chart must neither be changed nor be on screen until
+     * {@link #close()} has returned.
+     */
+    public void export(XYChart chart, String name) {
+        writerThread.execute(() -> writeChart(chart, name));
+    }
+
+
+    private void writeChart(XYChart chart, String name) {
+        try {
+            writeAtomically(directory.resolve(runId + "-" + name + ".png"), chart);
+        } catch (IOException e) {
+            System.err.println("Warning: unable to export chart " + name + ": " + e.getMessage());
+        }
+    }
+
+
+    private void drain() {
+        // Writer thread: taking everything queued so far as one batch. The flag is cleared first, so a frame
+        // queued while the batch is written schedules another drain.
+        drainScheduled.set(false);
+        List<Frame> batch = new ArrayList<>(QUEUE_CAPACITY);
+        frames.drainTo(batch);
+        if (batch.isEmpty()) return;
+        writeFrames(batch);
+        if (System.nanoTime() - lastProgressTime >= PROGRESS_INTERVAL_NANOS) writeProgressChart();
+    }
+
+
+    private void writeFrames(List<Frame> batch) {
+        for (Frame frame : batch) {
+            addSample(frame);
+            if (frame.route == null) continue;
+            long start = System.nanoTime();
+            try {
+                RouteChartListener.plotRoute(routeChart, xs, ys, frame.route, frame.bestDistance, frame.generation,
+                        frame.genWithBestDistance, settings);
+                freeBuffers.offer(frame.route); // plotted, so the solver may reuse it
+                if (frameFormat != FrameFormat.NONE) { // without frames only the final route is plotted
+                    if (frameFormat == FrameFormat.PNG) {
+                        writeAtomically(directory.resolve(String.format("%s-route-%07d.png", runId,
+                                frame.generation)), routeChart);
+                    } else {
+                        writeGifFrame(BitmapEncoder.getBufferedImage(routeChart));
+                    }
+                    writtenFrames.incrementAndGet();
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: unable to write frame " + frame.generation + ": " + e.getMessage());
+            }
+            SolverMetrics metrics = this.metrics;
+            if (metrics != null) metrics.addRenderNanos(System.nanoTime() - start);
+        }
+    }
+
+
+    private void addSample(Frame frame) {
+        if (samples == sampleGenerations.length) {
+            sampleGenerations = Arrays.copyOf(sampleGenerations, 2 * samples);
+            sampleCurrentBest = Arrays.copyOf(sampleCurrentBest, 2 * samples);
+            sampleBest = Arrays.copyOf(sampleBest, 2 * samples);
+        }
+        sampleGenerations[samples] = frame.generation;
+        // the final frame has no current best of its own; repeating the previous one keeps the line flat
+        sampleCurrentBest[samples] = Double.isNaN(frame.currentBestDistance) && samples > 0
+                ? sampleCurrentBest[samples - 1] : frame.currentBestDistance;
+        sampleBest[samples] = frame.bestDistance;
+        samples++;
+    }
+
+
+    private void writeProgressChart() {
+        lastProgressTime = System.nanoTime();
+        if (samples == 0) return;
+        double[] generations = Arrays.copyOf(sampleGenerations, samples);
+        updateSeries("Best Distance in Generation", generations, Arrays.copyOf(sampleCurrentBest, samples));
+        updateSeries("Best Distance Ever", generations, Arrays.copyOf(sampleBest, samples));
+        try {
+            writeAtomically(directory.resolve(runId + "-progress.png"), progressChart);
+        } catch (IOException e) {
+            System.err.println("Warning: unable to write the progress chart: " + e.getMessage());
+        }
+    }
+
+
+    private void updateSeries(String name, double[] x, double[] y) {
+        if (progressChart.getSeriesMap().containsKey(name)) {
+            progressChart.updateXYSeries(name, x, y, null);
+        } else {
+            XYSeries series = progressChart.addSeries(name, x, y);
+            series.setMarker(SeriesMarkers.NONE);
+        }
+    }
+
+
+    private static void writeAtomically(Path file, XYChart chart) throws IOException {
+        // Writing next to the target and renaming, so a reader never sees half a file
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+            BitmapEncoder.saveBitmap(chart, out, BitmapEncoder.BitmapFormat.PNG);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+
+    private void writeGifFrame(BufferedImage image) throws IOException {
+        if (gifWriter == null) { // opening the animation with the first frame
+            gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+            // streamed into a temporary file that close() renames, so an unfinished animation never has the name
+            gifOutput = ImageIO.createImageOutputStream(gifTemporaryFile().toFile());
+            gifWriter.setOutput(gifOutput);
+            gifWriter.prepareWriteSequence(null);
+        }
+        IIOMetadata metadata = gifWriter.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image),
+                null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(GIF_FRAME_DELAY_MILLIS / 10)); // in 1/100 s
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+        if (writtenFrames.get() == 0) { // the NETSCAPE extension makes the animation loop forever
+            IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{1, 0, 0});
+            extensions.appendChild(loop);
+            root.appendChild(extensions);
+        }
+        metadata.setFromTree(format, root);
+        gifWriter.writeToSequence(new IIOImage(image, null, metadata), null);
+    }
+
+
+    @Override
+    public void close() {
+        // Writing whatever is still queued, then finishing the animation
+        if (writerThread.isShutdown()) return;
+        writerThread.execute(() -> {
+            drain();
+            if (gifWriter == null) return;
+            try {
+                gifWriter.endWriteSequence();
+                gifOutput.close();
+                Files.move(gifTemporaryFile(), directory.resolve(runId + "-route.gif"),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                System.err.println("Warning: unable to finish " + runId + "-route.gif: " + e.getMessage());
+            } finally {
+                gifWriter.dispose();
+                gifWriter = null;
+            }
+        });
+        writerThread.shutdown();
+        try {
+            if (!writerThread.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("Warning: chart export did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private Path gifTemporaryFile() {
+        return directory.resolve(runId + "-route.gif.tmp");
+    }
+
+
+    private record Frame(int[] route, int generation, double currentBestDistance, double bestDistance,
+                         int genWithBestDistance) {
+    }
+}
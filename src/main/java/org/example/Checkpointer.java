@@ -0,0 +1,171 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+
+/**
+ * Writes checkpoints of a run to a binary file on a background thread, and reads them back.
+ * <p>
+ * The caller encodes the state into a reused buffer on its own thread, which costs about as much as copying
+ * the population once; writing the file and syncing it to disk then happen in the background. If the
+ * previous checkpoint is still being written when the next one is due, the new one is skipped rather than
+ * stalling the evolution. Every checkpoint goes to a temporary file that is atomically renamed over the old
+ * one, so a crash in the middle of a write leaves the previous checkpoint intact.
+ * <p>
+ * File layout, big-endian: magic, format version and payload length (ints), the payload, and a CRC-32 of the
+ * payload. Cities are stored as unsigned 16-bit values when there are at most 65536 of them.
+ */
+final class Checkpointer implements AutoCloseable {
+
+    private static final int MAGIC = 0x54535043; // "TSPC"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 12;
+    private static final int TRAILER_BYTES = 4;
+    private static final int MAX_SHORT_CITIES = 1 << 16;
+
+    private final Path file;
+    private final Path temporaryFile;
+    private final ExecutorService writerThread;
+    private ByteBuffer buffer = ByteBuffer.allocate(0); // reused while large enough; owned by the writer while
+    // a write is pending
+    private Future<?> pendingWrite;
+
+
+    Checkpointer(Path file) {
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.writerThread = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Encodes a checkpoint of {@code payloadBytes} bytes with {@code encoder} and hands it to the writer
+     * thread. Returns false (and writes nothing) if the previous checkpoint is still being written, unless
+     * {@code waitForPrevious} is set.
+     */
+    boolean write(int payloadBytes, Consumer<ByteBuffer> encoder, boolean waitForPrevious) {
+        if (pendingWrite != null) {
+            if (!pendingWrite.isDone() && !waitForPrevious) return false;
+            awaitPendingWrite();
+        }
+        int size = HEADER_BYTES + payloadBytes + TRAILER_BYTES;
+        if (buffer.capacity() < size) buffer = ByteBuffer.allocate(size + size / 2); // room to grow
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(payloadBytes);
+        encoder.accept(buffer);
+        if (buffer.position() != HEADER_BYTES + payloadBytes) {
+            throw new IllegalStateException("Checkpoint payload has " + (buffer.position() - HEADER_BYTES)
+                    + " bytes instead of " + payloadBytes);
+        }
+        ByteBuffer data = buffer;
+        pendingWrite = writerThread.submit(() -> writeFile(data, payloadBytes));
+        return true;
+    }
+
+
+    private void writeFile(ByteBuffer data, int payloadBytes) {
+        CRC32 crc = new CRC32();
+        crc.update(data.slice(HEADER_BYTES, payloadBytes));
+        data.putInt((int) crc.getValue());
+        data.flip();
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (data.hasRemaining()) channel.write(data);
+                channel.force(true); // the checkpoint has to be on disk before it replaces the old one
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) { // the run goes on; the next checkpoint may succeed
+            System.err.println("Warning: unable to write checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+
+
+    private void awaitPendingWrite() {
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing a checkpoint", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Checkpoint writer failed", e.getCause());
+        }
+        pendingWrite = null;
+    }
+
+
+    /**
+     * Reads the checkpoint in {@code file} and returns its payload, after checking the header and the CRC.
+     */
+    static ByteBuffer read(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < HEADER_BYTES + TRAILER_BYTES || data.getInt() != MAGIC) {
+            throw new IOException(file + " is not a checkpoint");
+        }
+        int version = data.getInt();
+        if (version != VERSION) throw new IOException(file + " has unsupported checkpoint version " + version);
+        int payloadBytes = data.getInt();
+        if (payloadBytes < 0 || payloadBytes != data.remaining() - TRAILER_BYTES) {
+            throw new IOException(file + " is truncated");
+        }
+        ByteBuffer payload = data.slice(HEADER_BYTES, payloadBytes);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != data.getInt(HEADER_BYTES + payloadBytes)) {
+            throw new IOException(file + " is corrupt (CRC mismatch)");
+        }
+        return payload;
+    }
+
+
+    static int cityBytes(int numberOfCities) { // bytes per stored city
+        return numberOfCities <= MAX_SHORT_CITIES ? Character.BYTES : Integer.BYTES;
+    }
+
+
+    static void putCities(ByteBuffer buffer, int[] cities, int offset, int count, int numberOfCities) {
+        if (numberOfCities <= MAX_SHORT_CITIES) {
+            for (int i = offset; i < offset + count; i++) buffer.putChar((char) cities[i]);
+        } else {
+            buffer.asIntBuffer().put(cities, offset, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+        }
+    }
+
+
+    static void getCities(ByteBuffer buffer, int[] cities, int offset, int count, int numberOfCities) {
+        if (numberOfCities <= MAX_SHORT_CITIES) {
+            for (int i = offset; i < offset + count; i++) cities[i] = buffer.getChar();
+        } else {
+            buffer.asIntBuffer().get(cities, offset, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+        }
+    }
+
+
+    @Override
+    public void close() {
+        // Finishing the last checkpoint, so it is complete once the run returns
+        try {
+            if (pendingWrite != null) awaitPendingWrite();
+        } finally {
+            writerThread.shutdown();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example;
+
+
+/**
+ * A crossover operator that combines two parent routes into a child route.
+ * <p>
+ * Routes are slices of flat population buffers (see {@link GeneticAlgorithm}): a route starts at an offset
+ * and holds every city exactly once, with the closing edge back to the first city implied. Implementations
+ * keep their scratch arrays between calls, so an instance must only be used by one thread at a time;
+ * {@link CrossoverType#create(int)} makes a fresh instance for every worker.
+ */
+public interface Crossover {
+
+    /**
+     * Writes a child of the routes at {@code parent1} and {@code parent2} in {@code parents} into
+     * {@code children[child, child + numberOfCities)}. The child slice must not overlap the parent slices.
+     */
+    void crossover(int[] parents, int parent1, int parent2, int[] children, int child,
+                   int numberOfCities, Rng random);
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+
+/**
+ * The crossover operators a run can be configured with. All of them are linear in the number of cities.
+ */
+public enum CrossoverType {
+
+    ORDER { // order crossover (OX), the operator the algorithm always used
+        @Override
+        public Crossover create(int numberOfCities) {
+            return new OrderCrossover(numberOfCities);
+        }
+    },
+    PARTIALLY_MAPPED { // partially mapped crossover (PMX)
+        @Override
+        public Crossover create(int numberOfCities) {
+            return new PartiallyMappedCrossover(numberOfCities);
+        }
+    },
+    CYCLE { // cycle crossover (CX)
+        @Override
+        public Crossover create(int numberOfCities) {
+            return new CycleCrossover(numberOfCities);
+        }
+    },
+    EDGE_RECOMBINATION { // edge recombination crossover (ERX)
+        @Override
+        public Crossover create(int numberOfCities) {
+            return new EdgeRecombinationCrossover(numberOfCities);
+        }
+    };
+
+
+    /**
+     * Creates a new operator instance with scratch space for routes of the given number of cities.
+     */
+    public abstract Crossover create(int numberOfCities);
+}
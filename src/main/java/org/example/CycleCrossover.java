@@ -0,0 +1,45 @@
+package org.example;
+
+
+/**
+ * Cycle crossover (CX) in linear time.
+ * <p>
+ * The positions of the two parents fall apart into cycles: starting from a position, the city parent2 has
+ * there is looked up in parent1, whose position leads to the next city, and so on until the start is reached
+ * again. The child takes the cities of the first cycle from parent1, of the second from parent2 and keeps
+ * alternating, so every city keeps the position it had in one of its parents.
+ */
+public class CycleCrossover implements Crossover {
+
+    private final int[] positionInParent1; // positionInParent1[c] is the position of city c in parent1
+    private final boolean[] assigned; // positions of the child that are already filled
+
+
+    public CycleCrossover(int numberOfCities) {
+        positionInParent1 = new int[numberOfCities];
+        assigned = new boolean[numberOfCities];
+    }
+
+
+    @Override
+    public void crossover(int[] parents, int parent1, int parent2, int[] children, int child,
+                          int numberOfCities, Rng random) {
+        for (int i = 0; i < numberOfCities; i++) {
+            positionInParent1[parents[parent1 + i]] = i;
+            assigned[i] = false;
+        }
+        // Randomly choosing which parent provides the first cycle, so both parents get the same chances:
+        boolean fromParent1 = random.nextInt(2) == 0;
+        for (int start = 0; start < numberOfCities; start++) {
+            if (assigned[start]) continue;
+            int source = fromParent1 ? parent1 : parent2;
+            int position = start;
+            do { // walking the cycle and copying it from the chosen parent
+                assigned[position] = true;
+                children[child + position] = parents[source + position];
+                position = positionInParent1[parents[parent2 + position]];
+            } while (position != start);
+            fromParent1 = !fromParent1; // alternating parents from cycle to cycle
+        }
+    }
+}
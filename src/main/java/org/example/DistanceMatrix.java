@@ -0,0 +1,162 @@
+package org.example;
+
+
+/**
+ * Distance evaluation engine for a fixed set of cities.
+ * <p>
+ * For small and medium instances every pairwise distance is computed once up front and kept in a flat
+ * row-major array, so looking up an edge is a single array read instead of a square root. Once the full
+ * matrix would get too big (it grows with N*N) we first switch to single precision and, past that, fall back
+ * to computing distances on the fly from primitive coordinate arrays.
+ * <p>
+ * Distances follow a {@link Metric}, or come from an explicit weight matrix as TSPLIB instances may give
+ * them; an explicit matrix is always kept in memory, so it is limited to FLOAT_MATRIX_LIMIT cities.
+ */
+public final class DistanceMatrix {
+
+    // Largest city count for which a double[N*N] matrix is kept (4096^2 * 8 bytes = 128 MB):
+    public static final int DOUBLE_MATRIX_LIMIT = 4096;
+    // Largest city count for which a float[N*N] matrix is kept (8192^2 * 4 bytes = 256 MB):
+    public static final int FLOAT_MATRIX_LIMIT = 8192;
+
+    private final int size;
+    private final Metric metric; // null for an explicit matrix
+    private final double[] xs; // coordinates as the metric uses them (GEO: radians); null for an explicit matrix
+    private final double[] ys;
+    private final double[] doubleMatrix; // null unless size <= DOUBLE_MATRIX_LIMIT
+    private final float[] floatMatrix; // null unless DOUBLE_MATRIX_LIMIT < size <= FLOAT_MATRIX_LIMIT
+
+
+    public DistanceMatrix(double[] xs, double[] ys) {
+        this(xs, ys, Metric.EUCLIDEAN);
+    }
+
+
+    public DistanceMatrix(double[] xs, double[] ys, Metric metric) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length: " + xs.length + " vs " + ys.length);
+        }
+        this.size = xs.length;
+        this.metric = metric;
+        this.xs = new double[size];
+        this.ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            this.xs[i] = metric.prepare(xs[i]);
+            this.ys[i] = metric.prepare(ys[i]);
+        }
+        if (size <= DOUBLE_MATRIX_LIMIT) {
+            doubleMatrix = new double[size * size];
+            floatMatrix = null;
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) { // the matrix is symmetric, so compute each pair only once
+                    double d = compute(i, j);
+                    doubleMatrix[i * size + j] = d;
+                    doubleMatrix[j * size + i] = d;
+                }
+            }
+        } else if (size <= FLOAT_MATRIX_LIMIT) {
+            doubleMatrix = null;
+            floatMatrix = new float[size * size];
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    float d = (float) compute(i, j);
+                    floatMatrix[i * size + j] = d;
+                    floatMatrix[j * size + i] = d;
+                }
+            }
+        } else {
+            doubleMatrix = null;
+            floatMatrix = null;
+        }
+    }
+
+
+    private DistanceMatrix(int size, double[] doubleMatrix, float[] floatMatrix) {
+        this.size = size;
+        this.metric = null;
+        this.xs = null;
+        this.ys = null;
+        this.doubleMatrix = doubleMatrix;
+        this.floatMatrix = floatMatrix;
+    }
+
+
+    /**
+     * A distance matrix with the given weights, {@code weights[i * size + j]} being the distance from city i
+     * to city j. Up to DOUBLE_MATRIX_LIMIT cities the array is used as it is, so the caller must not change it
+     * any more.
+     */
+    public static DistanceMatrix explicit(double[] weights, int size) {
+        if (weights.length != size * size) {
+            throw new IllegalArgumentException("Expected " + size * size + " weights, got " + weights.length);
+        }
+        if (size <= DOUBLE_MATRIX_LIMIT) return new DistanceMatrix(size, weights, null);
+        if (size > FLOAT_MATRIX_LIMIT) {
+            throw new IllegalArgumentException("Explicit matrices are limited to " + FLOAT_MATRIX_LIMIT + " cities");
+        }
+        float[] floatMatrix = new float[size * size];
+        for (int i = 0; i < floatMatrix.length; i++) floatMatrix[i] = (float) weights[i];
+        return new DistanceMatrix(size, null, floatMatrix);
+    }
+
+
+    public int size() {
+        return size;
+    }
+
+
+    public double distance(int from, int to) { // distance of a single edge
+        if (doubleMatrix != null) return doubleMatrix[from * size + to];
+        if (floatMatrix != null) return floatMatrix[from * size + to];
+        return compute(from, to);
+    }
+
+
+    public double tourLength(int[] tours, int offset, int numberOfCities) {
+        // Length of the closed tour stored in tours[offset, offset + numberOfCities); the tour is implicitly
+        // cyclic, so the edge from its last city back to its first one is included.
+        int last = tours[offset + numberOfCities - 1];
+        if (doubleMatrix != null) { // fast path without the per-edge branch in distance()
+            double totalDistance = doubleMatrix[last * size + tours[offset]];
+            for (int i = offset; i < offset + numberOfCities - 1; i++) {
+                totalDistance += doubleMatrix[tours[i] * size + tours[i + 1]];
+            }
+            return totalDistance;
+        }
+        double totalDistance = distance(last, tours[offset]);
+        for (int i = offset; i < offset + numberOfCities - 1; i++) {
+            totalDistance += distance(tours[i], tours[i + 1]);
+        }
+        return totalDistance;
+    }
+
+
+    public Metric getMetric() { // null for an explicit matrix
+        return metric;
+    }
+
+
+    public boolean hasCoordinates() { // false for an explicit matrix
+        return xs != null;
+    }
+
+
+    // The coordinates as the metric uses them, for spatial indexing; shared, so callers must not modify them
+    double[] xs() {
+        return xs;
+    }
+
+    double[] ys() {
+        return ys;
+    }
+
+
+    private double compute(int from, int to) {
+        if (metric == Metric.EUCLIDEAN) { // the common case without the switch in Metric.distance
+            double x = xs[to] - xs[from];
+            double y = ys[to] - ys[from];
+            return Math.sqrt(x * x + y * y);
+        }
+        return metric.distance(xs[from], ys[from], xs[to], ys[to]);
+    }
+}
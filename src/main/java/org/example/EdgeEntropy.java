@@ -0,0 +1,64 @@
+package org.example;
+
+import java.util.Arrays;
+
+
+/**
+ * Population diversity as the entropy of the distribution of (undirected) edges over the individuals.
+ * <p>
+ * Edges are counted in an open-addressing table of primitive arrays that is kept between measurements. To
+ * bound time and memory, at most about MAX_EDGES edges are counted: large populations of large tours are
+ * measured on individuals spread evenly over the population.
+ */
+final class EdgeEntropy {
+
+    private static final int MAX_EDGES = 1 << 21;
+    private static final long EMPTY = -1;
+
+    private long[] keys = new long[0];
+    private int[] counts = new int[0];
+
+
+    /**
+     * Entropy of the edges of the population, normalised to 0 (all sampled tours are the same) .. 1 (no edge
+     * occurs twice).
+     */
+    double measure(int[] population, int populationSize, int numberOfCities) {
+        int sample = Math.min(populationSize, Math.max(2, MAX_EDGES / numberOfCities));
+        if (sample < 2 || numberOfCities < 3) return 0;
+        int edges = sample * numberOfCities;
+        int capacity = Integer.highestOneBit(edges) << 2; // at most half full
+        if (keys.length < capacity) {
+            keys = new long[capacity];
+            counts = new int[capacity];
+        }
+        Arrays.fill(keys, 0, capacity, EMPTY);
+        int mask = capacity - 1;
+        int shift = 64 - Integer.numberOfTrailingZeros(capacity); // keeping the best-mixed top bits
+        for (int s = 0; s < sample; s++) {
+            int offset = (int) ((long) s * populationSize / sample) * numberOfCities;
+            for (int i = 0; i < numberOfCities; i++) {
+                int a = population[offset + i];
+                int b = population[offset + (i + 1 == numberOfCities ? 0 : i + 1)];
+                long key = (long) Math.min(a, b) * numberOfCities + Math.max(a, b);
+                int slot = (int) ((key * 0x9e3779b97f4a7c15L) >>> shift);
+                while (keys[slot] != EMPTY && keys[slot] != key) slot = (slot + 1) & mask; // linear probing
+                if (keys[slot] == EMPTY) {
+                    keys[slot] = key;
+                    counts[slot] = 1;
+                } else {
+                    counts[slot]++;
+                }
+            }
+        }
+        double entropy = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (keys[slot] == EMPTY) continue;
+            double p = (double) counts[slot] / edges;
+            entropy -= p * Math.log(p);
+        }
+        // Identical tours give ln(numberOfCities), tours without common edges ln(edges):
+        double normalised = (entropy - Math.log(numberOfCities)) / Math.log(sample);
+        return Math.max(0, Math.min(1, normalised));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+
+/**
+ * Edge recombination crossover (ERX) in linear time.
+ * <p>
+ * An edge table lists, for every city, its neighbours in either parent (at most four). The child starts with
+ * the first city of a random parent; after each step the current city is struck from the table and the next
+ * city is the current one's remaining neighbour with the fewest remaining neighbours itself (ties broken at
+ * random). When a city has no neighbours left, a random unvisited city is taken instead. The child thus
+ * inherits almost all of its edges from its parents.
+ */
+public class EdgeRecombinationCrossover implements Crossover {
+
+    private static final int MAX_NEIGHBOURS = 4;
+
+    private final int[] neighbours; // neighbours[c * 4 ... c * 4 + neighbourCount[c]) are the neighbours of city c
+    private final int[] neighbourCount;
+    private final int[] unvisited; // cities that are not in the child yet, in unvisited[0, unvisitedCount)
+    private final int[] unvisitedPosition; // unvisitedPosition[c] is the index of city c in unvisited, or -1
+
+
+    public EdgeRecombinationCrossover(int numberOfCities) {
+        neighbours = new int[numberOfCities * MAX_NEIGHBOURS];
+        neighbourCount = new int[numberOfCities];
+        unvisited = new int[numberOfCities];
+        unvisitedPosition = new int[numberOfCities];
+    }
+
+
+    @Override
+    public void crossover(int[] parents, int parent1, int parent2, int[] children, int child,
+                          int numberOfCities, Rng random) {
+        for (int c = 0; c < numberOfCities; c++) {
+            neighbourCount[c] = 0;
+            unvisited[c] = c;
+            unvisitedPosition[c] = c;
+        }
+        int unvisitedCount = numberOfCities;
+        addEdges(parents, parent1, numberOfCities);
+        addEdges(parents, parent2, numberOfCities);
+
+        int current = parents[(random.nextInt(2) == 0 ? parent1 : parent2)];
+        for (int i = 0; i < numberOfCities; i++) {
+            children[child + i] = current;
+            // Taking the current city out of the unvisited set (swapping the last unvisited city into its place):
+            int index = unvisitedPosition[current];
+            int lastCity = unvisited[--unvisitedCount];
+            unvisited[index] = lastCity;
+            unvisitedPosition[lastCity] = index;
+            unvisitedPosition[current] = -1;
+            if (unvisitedCount == 0) break;
+            // Striking the current city from the lists of its neighbours:
+            int base = current * MAX_NEIGHBOURS;
+            for (int k = 0; k < neighbourCount[current]; k++) removeNeighbour(neighbours[base + k], current);
+            // Choosing the neighbour with the fewest remaining neighbours:
+            int next = -1;
+            int fewest = Integer.MAX_VALUE;
+            int ties = 0;
+            for (int k = 0; k < neighbourCount[current]; k++) {
+                int candidate = neighbours[base + k];
+                int count = neighbourCount[candidate];
+                if (count < fewest) {
+                    fewest = count;
+                    next = candidate;
+                    ties = 1;
+                } else if (count == fewest && random.nextInt(++ties) == 0) { // reservoir sampling among ties
+                    next = candidate;
+                }
+            }
+            if (next == -1) next = unvisited[random.nextInt(unvisitedCount)]; // dead end: jump to a random city
+            current = next;
+        }
+    }
+
+
+    private void addEdges(int[] parents, int parent, int numberOfCities) {
+        // Adding both edges of every city of the parent to the edge table, skipping duplicates
+        for (int i = 0; i < numberOfCities; i++) {
+            int city = parents[parent + i];
+            int previous = parents[parent + (i == 0 ? numberOfCities - 1 : i - 1)];
+            int next = parents[parent + (i == numberOfCities - 1 ? 0 : i + 1)];
+            addNeighbour(city, previous);
+            addNeighbour(city, next);
+        }
+    }
+
+
+    private void addNeighbour(int city, int neighbour) {
+        int base = city * MAX_NEIGHBOURS;
+        for (int k = 0; k < neighbourCount[city]; k++) {
+            if (neighbours[base + k] == neighbour) return; // edge is shared by both parents
+        }
+        neighbours[base + neighbourCount[city]++] = neighbour;
+    }
+
+
+    private void removeNeighbour(int city, int neighbour) {
+        int base = city * MAX_NEIGHBOURS;
+        for (int k = 0; k < neighbourCount[city]; k++) {
+            if (neighbours[base + k] == neighbour) {
+                neighbours[base + k] = neighbours[base + --neighbourCount[city]];
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,685 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * The evolution engine: a population of routes over a fixed set of cities that is improved one generation
+ * at a time by selection, crossover and mutation.
+ * <p>
+ * The population lives in two preallocated flat buffers of {@code populationSize * numberOfCities} ints, the
+ * current and the next generation, which are swapped after every generation. Individual {@code i} occupies
+ * the slice starting at {@code i * numberOfCities}; tours are implicitly cyclic, so the first city is not
+ * repeated at the end. Route distances live in parallel {@code double[]} arrays and all operators work in
+ * place on slices, so in the steady state a generation allocates nothing.
+ * <p>
+ * Building the next generation is split into one contiguous chunk of individuals per worker. Every worker
+ * owns its own random generator, split off a master generator seeded with the run seed, and always handles
+ * the same chunk, so two runs with the same seed and thread count produce exactly the same routes.
+ * With a single thread everything runs on the calling thread.
+ * <p>
+ * With adaptive control the selection scheme, crossover and mutation of every child are drawn from an
+ * {@link AdaptivePursuit} per kind of operator, which favours whatever has recently produced improvements.
+ * The workers credit the improvements to the operators in their own counters, which are summed up in worker
+ * order, so adaptive runs are just as reproducible. When the population stops improving, the mutation rate is
+ * raised step by step, and finally the population is restarted around its elite.
+ */
+public class GeneticAlgorithm implements AutoCloseable {
+
+    private static final int MAX_RESELECTIONS = 16;
+    private static final int MAX_DEDUPLICATION_KICKS = 8; // per duplicate; tiny instances have few distinct tours
+    private static final int PHASE_SLOTS = 16; // per-thread phase timers, padded to two cache lines so the
+    // workers never write to the same line
+    private static final int ARM_SLOTS = 16; // per-worker operator rewards, padded the same way
+    private static final SelectionType[] ADAPTIVE_SELECTIONS = {SelectionType.TOURNAMENT, SelectionType.ROULETTE};
+    private static final int MIN_ESCALATION_INTERVAL = 50; // generations without improvement per escalation step
+    private static final int MAX_ESCALATIONS = 3; // doubling the mutation rate up to 8 times before restarting
+    private static final int RESTART_KICK_DIVISOR = 20; // a restart kicks every copy numberOfCities / 20 times
+
+    private final DistanceMatrix distanceMatrix;
+    private final int numberOfCities;
+    private final int populationSize;
+    private final int eliteSize;
+    private final double baseMutationRate; // the configured rate
+    private double mutationRate; // the rate in use, raised by adapt() while the population stagnates
+    private final Rng[] randoms; // randoms[w] is used only by worker w
+    private final LocalSearchMode localSearchMode;
+    private final ExecutorService executor; // null when everything runs on the calling thread
+    private final boolean ownsExecutor; // whether close() should shut the executor down
+    private final List<Callable<Void>> workerTasks = new ArrayList<>();
+    private final List<Callable<Void>> improveEliteTasks = new ArrayList<>();
+
+    private int[] population; // current generation, populationSize slices of numberOfCities cities
+    private int[] newPopulation; // next generation, filled by the workers
+    // Route distance of every individual, evaluated once per generation
+    // (routeDistances[i] belongs to the slice of individual i):
+    private double[] routeDistances;
+    private double[] newRouteDistances;
+    private final Selection[] selections; // prepared once per generation, the workers picking with their
+    // forWorker() copies; only the configured one, unless adaptive
+    private final Rng selectionRandom; // used by Selection.prepare() on the calling thread
+    private final int[] eliteIndices; // indices of the eliteSize best individuals, best first
+    // With deduplication: the TourHash of every individual of the generation being built, and an
+    // open-addressing set of the hashes seen so far (0 marking empty slots); null otherwise
+    private final long[] hashes;
+    private final long[] hashSet;
+    // Nanoseconds spent per SolverMetrics.Phase: phaseNanos[w] by worker w, phaseNanos[workers] by the calling
+    // thread. Only updated while phaseTiming is on, so without metrics the workers never read the clock.
+    private final long[][] phaseNanos;
+    private boolean phaseTiming;
+    // Adaptive control, all null unless adaptive: one pursuit per kind of operator, and the rewards and
+    // applications worker w credited to every operator in this generation in armRewards[w] and armCounts[w]
+    // (selection schemes first, starting at slot 0, then the crossovers and the mutations)
+    private final AdaptivePursuit selectionPursuit;
+    private final AdaptivePursuit crossoverPursuit;
+    private final AdaptivePursuit mutationPursuit;
+    private final SelectionType[] selectionTypes; // the operators behind the arms of the pursuits, in order
+    private final CrossoverType[] crossoverTypes;
+    private final MutationType[] mutationTypes;
+    private final double[][] armRewards;
+    private final int[][] armCounts;
+    private final double[] totalRewards; // armRewards summed over the workers
+    private final int[] totalCounts;
+    private final int crossoverSlot; // first slot of the crossovers
+    private final int mutationSlot; // first slot of the mutations
+    private final int escalationInterval; // generations without improvement before the next escalation
+    private double adaptiveBest = Double.MAX_VALUE; // shortest distance seen by adapt()
+    private int stagnation; // generations since adaptiveBest improved or the last escalation
+    private int escalations; // mutation rate doublings since the last improvement or restart
+    private int restarts;
+
+
+    public GeneticAlgorithm(DistanceMatrix distanceMatrix, SolverConfig config) {
+        this(distanceMatrix, config,
+                config.getThreads() > 1 ? new ForkJoinPool(config.getThreads()) : null, true);
+    }
+
+
+    public GeneticAlgorithm(DistanceMatrix distanceMatrix, SolverConfig config, ExecutorService executor) {
+        this(distanceMatrix, config, executor, false);
+    }
+
+
+    private GeneticAlgorithm(DistanceMatrix distanceMatrix, SolverConfig config, ExecutorService executor,
+                             boolean ownsExecutor) {
+        if (distanceMatrix.size() < 2) throw new IllegalArgumentException("At least two cities are needed");
+        this.distanceMatrix = distanceMatrix;
+        this.numberOfCities = distanceMatrix.size();
+        this.populationSize = config.getPopulationSize();
+        this.eliteSize = config.getEliteSize();
+        this.baseMutationRate = config.getMutationRate();
+        this.mutationRate = baseMutationRate;
+        int threads = config.getThreads();
+        this.executor = threads > 1 ? executor : null;
+        this.ownsExecutor = ownsExecutor;
+        this.population = new int[Math.multiplyExact(populationSize, numberOfCities)];
+        this.newPopulation = new int[population.length];
+        this.routeDistances = new double[populationSize];
+        this.newRouteDistances = new double[populationSize];
+        boolean adaptive = config.isAdaptive();
+        this.selectionTypes = adaptive ? ADAPTIVE_SELECTIONS : new SelectionType[]{config.getSelection()};
+        this.crossoverTypes = adaptive ? CrossoverType.values() : new CrossoverType[]{config.getCrossover()};
+        this.mutationTypes = adaptive ? MutationType.values() : new MutationType[]{config.getMutation()};
+        this.selections = new Selection[selectionTypes.length];
+        for (int s = 0; s < selections.length; s++) {
+            selections[s] = selectionTypes[s].create(populationSize, config.getTournamentSize());
+        }
+        this.selectionPursuit = adaptive ? new AdaptivePursuit(selectionTypes.length) : null;
+        this.crossoverPursuit = adaptive ? new AdaptivePursuit(crossoverTypes.length) : null;
+        this.mutationPursuit = adaptive ? new AdaptivePursuit(mutationTypes.length) : null;
+        this.crossoverSlot = selectionTypes.length;
+        this.mutationSlot = crossoverSlot + crossoverTypes.length;
+        this.totalRewards = adaptive ? new double[ARM_SLOTS] : null;
+        this.totalCounts = adaptive ? new int[ARM_SLOTS] : null;
+        this.escalationInterval = Math.max(MIN_ESCALATION_INTERVAL, config.getMaxGenerationsWithNoImprovement() / 20);
+        this.eliteIndices = new int[eliteSize];
+        this.hashes = config.isDeduplicate() ? new long[populationSize] : null;
+        this.hashSet = config.isDeduplicate() ? new long[Integer.highestOneBit(populationSize) << 2] : null;
+
+        this.localSearchMode = config.getLocalSearch();
+
+        int workers = Math.min(threads, populationSize);
+        Rng master = new Rng(config.getSeed());
+        randoms = new Rng[workers];
+        phaseNanos = new long[workers + 1][PHASE_SLOTS];
+        armRewards = adaptive ? new double[workers][ARM_SLOTS] : null;
+        armCounts = adaptive ? new int[workers][ARM_SLOTS] : null;
+        // The neighbour lists are read-only and shared; every worker gets its own local search working arrays
+        // (and, like its crossover, uses them only for its own chunk):
+        NeighbourLists neighbourLists = localSearchMode == LocalSearchMode.NONE ? null
+                : NeighbourLists.build(distanceMatrix, config.getNeighbourCount());
+        for (int w = 0; w < workers; w++) {
+            randoms[w] = master.split(); // giving every worker its own independent random stream
+            int from = (int) ((long) populationSize * w / workers);
+            int to = (int) ((long) populationSize * (w + 1) / workers);
+            Rng random = randoms[w];
+            Crossover[] crossovers = new Crossover[crossoverTypes.length]; // ...and its own operators
+            for (int c = 0; c < crossovers.length; c++) crossovers[c] = crossoverTypes[c].create(numberOfCities);
+            Mutation[] mutations = new Mutation[mutationTypes.length];
+            for (int m = 0; m < mutations.length; m++) mutations[m] = mutationTypes[m].create();
+            Selection[] workerSelections = new Selection[selections.length];
+            for (int s = 0; s < selections.length; s++) workerSelections[s] = selections[s].forWorker();
+            LocalSearch localSearch = neighbourLists == null ? null : new LocalSearch(distanceMatrix, neighbourLists);
+            int worker = w;
+            workerTasks.add(() -> {
+                breed(from, to, random, workerSelections, crossovers, mutations, localSearch,
+                        armRewards != null ? armRewards[worker] : null, armCounts != null ? armCounts[worker] : null,
+                        phaseTiming ? phaseNanos[worker] : null);
+                return null;
+            });
+            improveEliteTasks.add(() -> {
+                improveElite(worker, workers, localSearch, phaseTiming ? phaseNanos[worker] : null);
+                return null;
+            });
+        }
+        selectionRandom = master.split();
+        generateInitialPopulation(config.getInitialTours(), config.getSeededFraction());
+    }
+
+
+    private void generateInitialPopulation(InitialTourType initialTours, double seededFraction) {
+        // Generating the initial population: the first seededFraction of it from constructed tours, the rest
+        // random. Nearest neighbour tours are built afresh from random start cities; the other constructions are
+        // deterministic, so they are built once and the further individuals are kicked copies. So are nearest
+        // neighbour tours without coordinates, where every construction is an O(N^2) scan.
+        Rng random = randoms[0];
+        int seeded = initialTours == InitialTourType.RANDOM ? 0 : (int) Math.round(seededFraction * populationSize);
+        if (seeded > 0) {
+            TourConstructor constructor = new TourConstructor(distanceMatrix);
+            InitialTourType[] types = initialTours == InitialTourType.MIXED
+                    ? new InitialTourType[]{InitialTourType.NEAREST_NEIGHBOUR, InitialTourType.GREEDY,
+                    InitialTourType.SPACE_FILLING_CURVE}
+                    : new InitialTourType[]{initialTours};
+            int[] firstOffsets = new int[types.length]; // where the first individual of every type was built
+            int kicks = 1 + numberOfCities / 100;
+            for (int i = 0; i < seeded; i++) {
+                int offset = i * numberOfCities;
+                int t = i % types.length;
+                if (i < types.length) firstOffsets[t] = offset;
+                if (i < types.length
+                        || types[t] == InitialTourType.NEAREST_NEIGHBOUR && distanceMatrix.hasCoordinates()) {
+                    constructor.construct(types[t], random.nextInt(numberOfCities), population, offset);
+                } else {
+                    System.arraycopy(population, firstOffsets[t], population, offset, numberOfCities);
+                    for (int k = 0; k < kicks; k++) TourConstructor.kick(population, offset, numberOfCities, random);
+                }
+                routeDistances[i] = distanceMatrix.tourLength(population, offset, numberOfCities);
+            }
+        }
+        for (int i = seeded; i < populationSize; i++) {
+            int offset = i * numberOfCities;
+            for (int j = 0; j < numberOfCities; j++) population[offset + j] = j; // generating city indices
+            for (int j = numberOfCities - 1; j > 0; j--) { // Shuffling the city indices randomly (Fisher-Yates)
+                int k = random.nextInt(j + 1);
+                int tmp = population[offset + j];
+                population[offset + j] = population[offset + k];
+                population[offset + k] = tmp;
+            }
+            routeDistances[i] = distanceMatrix.tourLength(population, offset, numberOfCities);
+        }
+        if (hashes != null) { // the kicked copies of a construction may still coincide
+            for (int i = 0; i < populationSize; i++) {
+                hashes[i] = TourHash.of(population, i * numberOfCities, numberOfCities);
+            }
+            replaceDuplicates(population, routeDistances);
+        }
+    }
+
+
+    public void evolvePopulation() {
+        long start = phaseTiming ? System.nanoTime() : 0;
+        for (Selection selection : selections) { // building the selection tables for this generation
+            selection.prepare(routeDistances, selectionRandom);
+        }
+        findElite(routeDistances); // finding the best individuals of the previous population, so breed() can
+        // copy them over
+        if (phaseTiming) lap(phaseNanos[randoms.length], SolverMetrics.Phase.SELECTION, start);
+        runWorkers(workerTasks); // building, mutating and evaluating the new population chunk by chunk
+        if (localSearchMode == LocalSearchMode.ELITE) {
+            findElite(newRouteDistances); // finding the best individuals of the new population...
+            runWorkers(improveEliteTasks); // ...and improving them with local search
+        }
+        if (hashes != null) {
+            start = phaseTiming ? System.nanoTime() : 0;
+            replaceDuplicates(newPopulation, newRouteDistances);
+            if (phaseTiming) lap(phaseNanos[randoms.length], SolverMetrics.Phase.EVALUATION, start);
+        }
+        // Swapping the buffers: the new population becomes the current one, and the old buffers
+        // are reused for the next generation
+        int[] tmpPopulation = population;
+        population = newPopulation;
+        newPopulation = tmpPopulation;
+        double[] tmpDistances = routeDistances;
+        routeDistances = newRouteDistances;
+        newRouteDistances = tmpDistances;
+        if (selectionPursuit != null) adapt();
+    }
+
+
+    private void adapt() {
+        // Reweighting the operators by the improvements the workers credited them with in this generation
+        Arrays.fill(totalRewards, 0);
+        Arrays.fill(totalCounts, 0);
+        for (int w = 0; w < armRewards.length; w++) { // in worker order, so the sums do not depend on timing
+            for (int slot = 0; slot < ARM_SLOTS; slot++) {
+                totalRewards[slot] += armRewards[w][slot];
+                totalCounts[slot] += armCounts[w][slot];
+            }
+            Arrays.fill(armRewards[w], 0);
+            Arrays.fill(armCounts[w], 0);
+        }
+        selectionPursuit.update(totalRewards, totalCounts, 0);
+        crossoverPursuit.update(totalRewards, totalCounts, crossoverSlot);
+        mutationPursuit.update(totalRewards, totalCounts, mutationSlot);
+
+        // Reacting to stagnation: every escalationInterval generations without improvement the mutation rate
+        // doubles (at least to one city per route, for a configured rate of 0), and after MAX_ESCALATIONS
+        // doublings the population is restarted. Any improvement returns to the configured rate.
+        double best = getBestDistanceInPop();
+        if (best < adaptiveBest) {
+            adaptiveBest = best;
+            stagnation = 0;
+            escalations = 0;
+            mutationRate = baseMutationRate;
+            return;
+        }
+        if (++stagnation < escalationInterval) return;
+        stagnation = 0;
+        if (escalations < MAX_ESCALATIONS) {
+            escalations++;
+            mutationRate = Math.min(1, Math.max(2 * mutationRate, 1.0 / numberOfCities));
+        } else {
+            restart();
+            escalations = 0;
+            mutationRate = baseMutationRate;
+        }
+    }
+
+
+    private void restart() {
+        // Soft restart of a converged population: the elite (at least the best individual) survives, and every
+        // other individual is replaced by a copy of a random survivor kicked numberOfCities / 20 times (see
+        // TourConstructor.kick). That spreads the population around the best tours found so far, instead of
+        // starting over from random tours that would take most of the remaining run to catch up.
+        int survivors = Math.max(1, eliteSize);
+        int[] best = new int[survivors];
+        rankIndices(routeDistances, best, survivors, false);
+        boolean[] survives = new boolean[populationSize];
+        for (int index : best) survives[index] = true;
+        int kicks = Math.max(2, numberOfCities / RESTART_KICK_DIVISOR);
+        for (int i = 0; i < populationSize; i++) {
+            if (survives[i]) continue;
+            int offset = i * numberOfCities;
+            System.arraycopy(population, best[selectionRandom.nextInt(survivors)] * numberOfCities, population,
+                    offset, numberOfCities);
+            for (int k = 0; k < kicks; k++) TourConstructor.kick(population, offset, numberOfCities, selectionRandom);
+            routeDistances[i] = distanceMatrix.tourLength(population, offset, numberOfCities);
+        }
+        restarts++;
+    }
+
+
+    private void replaceDuplicates(int[] routes, double[] distances) {
+        // Going through the individuals in order, every one whose tour was already seen is kicked (see
+        // TourConstructor.kick) until it is new. The elite comes first, so it is always the copies of an elite
+        // tour that are changed, and one good tour cannot take over the population. Set lookups are O(1), so
+        // only the duplicates cost O(N) each, for their new length and hash.
+        Arrays.fill(hashSet, 0);
+        for (int i = 0; i < populationSize; i++) {
+            int offset = i * numberOfCities;
+            for (int kicks = 0; !addHash(hashes[i]) && kicks < MAX_DEDUPLICATION_KICKS; kicks++) {
+                TourConstructor.kick(routes, offset, numberOfCities, selectionRandom);
+                distances[i] = distanceMatrix.tourLength(routes, offset, numberOfCities);
+                hashes[i] = TourHash.of(routes, offset, numberOfCities);
+            }
+        }
+    }
+
+
+    private boolean addHash(long hash) { // false if the hash is in the set already
+        int mask = hashSet.length - 1;
+        for (int slot = (int) (hash >>> 32) & mask; ; slot = (slot + 1) & mask) { // linear probing
+            if (hashSet[slot] == hash) return false;
+            if (hashSet[slot] == 0) {
+                hashSet[slot] = hash;
+                return true;
+            }
+        }
+    }
+
+
+    private void findElite(double[] routeDistances) {
+        rankIndices(routeDistances, eliteIndices, eliteSize, false);
+    }
+
+
+    private void rankIndices(double[] routeDistances, int[] indices, int count, boolean worstFirst) {
+        // Keeping the count shortest (or longest) routes in indices, sorted from best to worst (or worst to best),
+        // by inserting every individual that beats the current last member of the ranking at its place
+        // (no sorting or boxing needed)
+        int ranked = 0;
+        double sign = worstFirst ? -1 : 1; // ranking by -distance puts the longest routes first
+        for (int i = 0; i < populationSize; i++) {
+            double key = sign * routeDistances[i];
+            if (ranked == count && (count == 0 || key >= sign * routeDistances[indices[ranked - 1]])) {
+                continue;
+            }
+            int j = ranked < count ? ranked++ : ranked - 1;
+            while (j > 0 && sign * routeDistances[indices[j - 1]] > key) {
+                indices[j] = indices[j - 1];
+                j--;
+            }
+            indices[j] = i;
+        }
+    }
+
+
+    private void runWorkers(List<Callable<Void>> tasks) {
+        try {
+            if (executor == null) {
+                tasks.getFirst().call(); // a single worker runs on the calling thread
+                return;
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get(); // rethrowing anything that went wrong in a worker
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evolving the population", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Worker failed while evolving the population", e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) { // Callable.call() may throw checked exceptions, our tasks never do
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static long lap(long[] times, SolverMetrics.Phase phase, long start) {
+        // Adding the time since start to the phase and returning the current time as the start of the next one
+        long now = System.nanoTime();
+        times[phase.ordinal()] += now - start;
+        return now;
+    }
+
+
+    private void breed(int from, int to, Rng random, Selection[] selections, Crossover[] crossovers,
+                       Mutation[] mutations, LocalSearch localSearch, double[] rewards, int[] counts, long[] times) {
+        // Filling the slots [from, to) of the new population. The first eliteSize slots receive the best
+        // individuals of the previous population (aka the elite) without performing crossover on them,
+        // the rest are children of two selected parents. Every individual is then mutated.
+        // Only children need a full evaluation: the elite brings its cached distance along, and mutations
+        // report the change they make, so their distance is updated from the few edges that changed.
+        // With times set, the time of every step is added to its phase. With adaptive control the operators
+        // are drawn from their pursuits, and every operator is credited in rewards and counts with the
+        // improvement it made: the crossover with that of the child over its better parent, the mutation with
+        // that of its change, and the selection scheme with that of the finished child.
+        long t = times != null ? System.nanoTime() : 0;
+        for (int i = from; i < to; i++) {
+            int offset = i * numberOfCities;
+            double distance;
+            int s = 0; // the selection scheme used for the parents
+            double parentDistance = 0; // the distance of the better parent
+            if (i < eliteSize) {
+                System.arraycopy(population, eliteIndices[i] * numberOfCities, newPopulation, offset, numberOfCities);
+                distance = routeDistances[eliteIndices[i]];
+            } else {
+                if (selectionPursuit != null) s = selectionPursuit.choose(random);
+                Selection selection = selections[s];
+                int draw = 2 * (i - eliteSize); // numbering the draws of this generation for the selection
+                int parent1 = selection.select(routeDistances, draw, random); // Selecting first parent
+                int parent2 = selection.select(routeDistances, draw + 1, random); // Selecting second parent
+                for (int tries = 0; parent1 == parent2; tries++) { // if parents are the same, select second
+                    // parent again until they are different (falling back to a uniform pick, should selection
+                    // keep returning the same dominant individual)
+                    parent2 = tries < MAX_RESELECTIONS ? selection.select(routeDistances, random)
+                            : random.nextInt(populationSize);
+                }
+                if (times != null) t = lap(times, SolverMetrics.Phase.SELECTION, t);
+                int c = crossoverPursuit != null ? crossoverPursuit.choose(random) : 0;
+                crossovers[c].crossover(population, parent1 * numberOfCities, parent2 * numberOfCities,
+                        newPopulation, offset, numberOfCities, random); // performing crossover
+                if (times != null) t = lap(times, SolverMetrics.Phase.CROSSOVER, t);
+                distance = distanceMatrix.tourLength(newPopulation, offset, numberOfCities);
+                if (times != null) t = lap(times, SolverMetrics.Phase.EVALUATION, t);
+                if (rewards != null) {
+                    parentDistance = Math.min(routeDistances[parent1], routeDistances[parent2]);
+                    credit(rewards, counts, crossoverSlot + c, parentDistance, distance);
+                }
+            }
+            int m = mutationPursuit != null ? mutationPursuit.choose(random) : 0;
+            double change = mutations[m].mutate(newPopulation, offset, numberOfCities, mutationRate, random,
+                    distanceMatrix); // mutating the individual
+            if (rewards != null && change != 0) credit(rewards, counts, mutationSlot + m, distance, distance + change);
+            distance += change;
+            if (times != null) t = lap(times, SolverMetrics.Phase.MUTATION, t);
+            if (localSearchMode == LocalSearchMode.ALL) { // memetic mode: improving every individual
+                distance = localSearch.improve(newPopulation, offset, distance);
+                if (times != null) t = lap(times, SolverMetrics.Phase.LOCAL_SEARCH, t);
+            }
+            if (rewards != null && i >= eliteSize) credit(rewards, counts, s, parentDistance, distance);
+            newRouteDistances[i] = distance;
+            if (hashes != null) { // for deduplication, which runs once the whole generation is there
+                hashes[i] = TourHash.of(newPopulation, offset, numberOfCities);
+                if (times != null) t = lap(times, SolverMetrics.Phase.EVALUATION, t);
+            }
+        }
+    }
+
+
+    private static void credit(double[] rewards, int[] counts, int slot, double before, double after) {
+        // Crediting an operator application with its relative improvement; making things worse earns nothing
+        if (before > 0) rewards[slot] += Math.max(0, before - after) / before;
+        counts[slot]++;
+    }
+
+
+    private void improveElite(int worker, int workers, LocalSearch localSearch, long[] times) {
+        // Improving the members of the new population's elite that belong to this worker
+        // (every workers-th one, starting at its own index)
+        long start = times != null ? System.nanoTime() : 0;
+        for (int e = worker; e < eliteSize; e += workers) {
+            int i = eliteIndices[e];
+            newRouteDistances[i] = localSearch.improve(newPopulation, i * numberOfCities, newRouteDistances[i]);
+            if (hashes != null) hashes[i] = TourHash.of(newPopulation, i * numberOfCities, numberOfCities);
+        }
+        if (times != null) lap(times, SolverMetrics.Phase.LOCAL_SEARCH, start);
+    }
+
+
+    void setPhaseTiming(boolean phaseTiming) { // only between generations
+        this.phaseTiming = phaseTiming;
+    }
+
+
+    void copyPhaseNanos(long[] totals) {
+        // Summing up the phase times of all threads into totals (indexed by SolverMetrics.Phase ordinal);
+        // like copyBestIndividuals, it must not run concurrently with evolvePopulation()
+        for (int p = 0; p < totals.length; p++) {
+            long sum = 0;
+            for (long[] times : phaseNanos) sum += times[p];
+            totals[p] = sum;
+        }
+    }
+
+
+    double measureEdgeEntropy(EdgeEntropy edgeEntropy) {
+        return edgeEntropy.measure(population, populationSize, numberOfCities);
+    }
+
+
+    public int getNumberOfCities() {
+        return numberOfCities;
+    }
+
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+
+    public double getMutationRate() { // the rate in use; above the configured one while adaptive control escalates
+        return mutationRate;
+    }
+
+
+    public int getRestarts() { // restarts by adaptive control so far
+        return restarts;
+    }
+
+
+    String describeOperatorProbabilities() {
+        // The current probability of every operator with adaptive control, e.g. "TOURNAMENT 62%, ROULETTE 38% |
+        // ORDER 40%, ... | SWAP 10%, INVERSION 90%"; empty without. Like copyBestIndividuals, it must not run
+        // concurrently with evolvePopulation().
+        if (selectionPursuit == null) return "";
+        StringBuilder description = new StringBuilder();
+        describe(description, selectionPursuit, selectionTypes);
+        description.append(" | ");
+        describe(description, crossoverPursuit, crossoverTypes);
+        description.append(" | ");
+        describe(description, mutationPursuit, mutationTypes);
+        return description.toString();
+    }
+
+
+    private static void describe(StringBuilder description, AdaptivePursuit pursuit, Enum<?>[] operators) {
+        for (int arm = 0; arm < pursuit.arms(); arm++) {
+            if (arm > 0) description.append(", ");
+            description.append(operators[arm]).append(' ').append(Math.round(100 * pursuit.probability(arm)))
+                    .append('%');
+        }
+    }
+
+
+    public void copyBestIndividuals(int count, int[] routes, int routesOffset, double[] distances,
+                                    int distancesOffset) {
+        // Copying the count best routes (best first) into routes, starting at individual routesOffset with
+        // numberOfCities cities each, and their distances into distances; used to send emigrants to other
+        // islands. Like replaceWorstIndividuals, it must not run concurrently with evolvePopulation().
+        int[] best = new int[count];
+        rankIndices(routeDistances, best, count, false);
+        for (int k = 0; k < count; k++) {
+            System.arraycopy(population, best[k] * numberOfCities, routes, (routesOffset + k) * numberOfCities,
+                    numberOfCities);
+            distances[distancesOffset + k] = routeDistances[best[k]];
+        }
+    }
+
+
+    public void replaceWorstIndividuals(int count, int[] routes, int routesOffset, double[] distances,
+                                        int distancesOffset) {
+        // Replacing the count worst individuals with routes taken from routes (starting at individual
+        // routesOffset) and their known distances; used to take in immigrants from other islands
+        int[] worst = new int[count];
+        rankIndices(routeDistances, worst, count, true);
+        for (int k = 0; k < count; k++) {
+            System.arraycopy(routes, (routesOffset + k) * numberOfCities, population, worst[k] * numberOfCities,
+                    numberOfCities);
+            routeDistances[worst[k]] = distances[distancesOffset + k];
+        }
+    }
+
+
+    int stateBytes() { // size of what saveState() writes
+        int bytes = Integer.BYTES + (randoms.length + 1) * 2 * Long.BYTES + populationSize * Double.BYTES
+                + population.length * Checkpointer.cityBytes(numberOfCities) + Integer.BYTES;
+        if (selectionPursuit == null) return bytes;
+        return bytes + selectionPursuit.stateBytes() + crossoverPursuit.stateBytes() + mutationPursuit.stateBytes()
+                + 2 * Double.BYTES + 3 * Integer.BYTES;
+    }
+
+
+    void saveState(ByteBuffer buffer) {
+        // Writing everything the next generations depend on: the random generators, the route distances and
+        // the population, and with adaptive control its state. Like copyBestIndividuals, it must not run
+        // concurrently with evolvePopulation().
+        buffer.putInt(randoms.length);
+        for (Rng random : randoms) random.save(buffer);
+        selectionRandom.save(buffer);
+        for (double distance : routeDistances) buffer.putDouble(distance);
+        Checkpointer.putCities(buffer, population, 0, population.length, numberOfCities);
+        buffer.putInt(selectionPursuit != null ? 1 : 0);
+        if (selectionPursuit == null) return;
+        selectionPursuit.saveState(buffer);
+        crossoverPursuit.saveState(buffer);
+        mutationPursuit.saveState(buffer);
+        buffer.putDouble(mutationRate).putDouble(adaptiveBest);
+        buffer.putInt(stagnation).putInt(escalations).putInt(restarts);
+    }
+
+
+    void restoreState(ByteBuffer buffer) {
+        // Continuing from a state written by saveState(); the run then goes on exactly as the saved one would
+        // have, which requires the same number of workers
+        int workers = buffer.getInt();
+        if (workers != randoms.length) {
+            throw new IllegalArgumentException("The checkpoint was written with " + workers
+                    + " workers, this run has " + randoms.length);
+        }
+        for (Rng random : randoms) random.restore(buffer);
+        selectionRandom.restore(buffer);
+        for (int i = 0; i < populationSize; i++) routeDistances[i] = buffer.getDouble();
+        Checkpointer.getCities(buffer, population, 0, population.length, numberOfCities);
+        boolean adaptive = buffer.getInt() != 0;
+        if (adaptive != (selectionPursuit != null)) {
+            throw new IllegalArgumentException("The checkpoint was written " + (adaptive ? "with" : "without")
+                    + " adaptive control, this run " + (adaptive ? "has none" : "has it"));
+        }
+        if (!adaptive) return;
+        selectionPursuit.restoreState(buffer);
+        crossoverPursuit.restoreState(buffer);
+        mutationPursuit.restoreState(buffer);
+        mutationRate = buffer.getDouble();
+        adaptiveBest = buffer.getDouble();
+        stagnation = buffer.getInt();
+        escalations = buffer.getInt();
+        restarts = buffer.getInt();
+    }
+
+
+    public int[] getBestRouteInPop() {
+        // Retrieving a copy of the best (shortest) route in the current population,
+        // repeating its first city at the end
+        int[] route = new int[numberOfCities + 1];
+        copyBestRouteInPop(route);
+        return route;
+    }
+
+
+    public void copyBestRouteInPop(int[] route) {
+        // Copying the best route into route (of length numberOfCities + 1) and closing the cycle,
+        // for callers that want to reuse their own array
+        System.arraycopy(population, getBestIndexInPop() * numberOfCities, route, 0, numberOfCities);
+        route[numberOfCities] = route[0];
+    }
+
+
+    public double getBestDistanceInPop() {
+        // Retrieving the shortest distance among all route distances in the current population.
+        return routeDistances[getBestIndexInPop()];
+    }
+
+
+    private int getBestIndexInPop() {
+        int bestIndex = 0;
+        for (int i = 1; i < populationSize; i++) { // Iterating over each route in the population
+            if (routeDistances[i] < routeDistances[bestIndex]) bestIndex = i; // comparing cached distances
+        }
+        return bestIndex;
+    }
+
+
+    @Override
+    public void close() {
+        if (ownsExecutor && executor != null) executor.shutdown();
+    }
+}
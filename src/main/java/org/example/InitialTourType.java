@@ -0,0 +1,15 @@
+package org.example;
+
+
+/**
+ * How the seeded part of the initial population is constructed (see {@code SolverConfig.seededFraction}); the
+ * rest of the population is always random, to keep it diverse. All constructions take O(N log N) time for
+ * instances with coordinates; for explicit matrices every construction falls back to a nearest neighbour tour.
+ */
+public enum InitialTourType {
+    RANDOM, // no seeding, every individual is a random permutation as the algorithm always did
+    NEAREST_NEIGHBOUR, // nearest neighbour tours from random start cities
+    GREEDY, // greedy edge matching: the shortest candidate edges first, fragments joined at the end
+    SPACE_FILLING_CURVE, // cities in the order of a Hilbert curve through the plane
+    MIXED // the three constructions in turn
+}
@@ -0,0 +1,391 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Reads problem instances from TSPLIB {@code .tsp} files and from plain CSV coordinate files.
+ * <p>
+ * The file is memory-mapped and parsed straight from the mapped bytes: numbers are assembled digit by digit
+ * into primitive arrays, so no String is built per line and no object per city. Only the few header
+ * keywords of a TSPLIB file become Strings.
+ * <p>
+ * Supported TSPLIB files are symmetric TSP instances with the edge weight types EUC_2D, CEIL_2D, GEO and ATT
+ * (NODE_COORD_SECTION), or EXPLICIT in any of the symmetric matrix formats (EDGE_WEIGHT_SECTION, optionally
+ * with a DISPLAY_DATA_SECTION to draw the cities). A CSV file has one city per line, either {@code x,y} or
+ * {@code id,x,y}, with commas, semicolons, tabs or spaces between the fields and an optional header line;
+ * its distances are exact Euclidean ones.
+ */
+public final class InstanceReader {
+
+    private static final double[] POWERS_OF_TEN = new double[23]; // exactly representable as doubles
+    private static final int MAX_EXACT_DIGITS = 15; // longer mantissas may not fit into a double exactly
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+
+    private InstanceReader(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+
+    /**
+     * Reads the instance in {@code path}; files ending in {@code .csv} are read as CSV, all others as TSPLIB.
+     */
+    public static TspInstance read(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String name = dot > 0 ? fileName.substring(0, dot) : fileName;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException(path + " is too large (" + size + " bytes)");
+            // The mapping stays valid after the channel is closed and is released with the buffer:
+            InstanceReader reader = new InstanceReader(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            return fileName.toLowerCase().endsWith(".csv") ? reader.readCsv(name) : reader.readTspLib(name);
+        }
+    }
+
+
+    private TspInstance readTspLib(String name) throws IOException {
+        Map<String, String> header = new HashMap<>();
+        int dimension = -1;
+        double[] xs = null;
+        double[] ys = null;
+        double[] displayXs = null; // only used to draw explicit instances
+        double[] displayYs = null;
+        double[] weights = null;
+        while (skipWhitespace()) {
+            String keyword = readKeyword();
+            switch (keyword) {
+                case "NODE_COORD_SECTION" -> {
+                    dimension = dimension(header);
+                    String type = header.getOrDefault("NODE_COORD_TYPE", "TWOD_COORDS");
+                    if (!type.equals("TWOD_COORDS")) throw error("Unsupported NODE_COORD_TYPE " + type);
+                    xs = new double[dimension];
+                    ys = new double[dimension];
+                    readCoordinates(xs, ys);
+                }
+                case "DISPLAY_DATA_SECTION" -> {
+                    dimension = dimension(header);
+                    displayXs = new double[dimension];
+                    displayYs = new double[dimension];
+                    readCoordinates(displayXs, displayYs);
+                }
+                case "EDGE_WEIGHT_SECTION" -> {
+                    dimension = dimension(header);
+                    if (dimension > DistanceMatrix.FLOAT_MATRIX_LIMIT) {
+                        throw error("Explicit weights are limited to " + DistanceMatrix.FLOAT_MATRIX_LIMIT + " cities");
+                    }
+                    weights = new double[dimension * dimension];
+                    readWeights(weights, dimension, header.getOrDefault("EDGE_WEIGHT_FORMAT", "FULL_MATRIX"));
+                }
+                case "EOF" -> position = limit;
+                default -> { // a "KEY : value" line
+                    skipSpaces();
+                    if (position < limit && buffer.get(position) == ':') position++;
+                    header.put(keyword, readRestOfLine());
+                }
+            }
+        }
+        String type = header.getOrDefault("TYPE", "TSP");
+        if (!type.equals("TSP")) throw new IOException(path + ": unsupported TYPE " + type);
+        name = header.getOrDefault("NAME", name);
+        String edgeWeightType = header.get("EDGE_WEIGHT_TYPE");
+        if (edgeWeightType == null) throw new IOException(path + ": EDGE_WEIGHT_TYPE is missing");
+        if (edgeWeightType.equals("EXPLICIT")) {
+            if (weights == null) throw new IOException(path + ": EDGE_WEIGHT_SECTION is missing");
+            if (displayXs == null) { // node coordinates, if given, are then only for display as well
+                displayXs = xs;
+                displayYs = ys;
+            }
+            return new TspInstance(name, displayXs, displayYs, DistanceMatrix.explicit(weights, dimension));
+        }
+        Metric metric = switch (edgeWeightType) {
+            case "EUC_2D" -> Metric.EUC_2D;
+            case "CEIL_2D" -> Metric.CEIL_2D;
+            case "GEO" -> Metric.GEO;
+            case "ATT" -> Metric.ATT;
+            default -> throw new IOException(path + ": unsupported EDGE_WEIGHT_TYPE " + edgeWeightType);
+        };
+        if (xs == null) throw new IOException(path + ": NODE_COORD_SECTION is missing");
+        return new TspInstance(name, xs, ys, new DistanceMatrix(xs, ys, metric));
+    }
+
+
+    private int dimension(Map<String, String> header) throws IOException {
+        String value = header.get("DIMENSION");
+        if (value == null) throw error("DIMENSION must come before the data sections");
+        try {
+            int dimension = Integer.parseInt(value);
+            if (dimension < 1) throw error("Invalid DIMENSION " + value);
+            return dimension;
+        } catch (NumberFormatException e) {
+            throw error("Invalid DIMENSION " + value);
+        }
+    }
+
+
+    private void readCoordinates(double[] xs, double[] ys) throws IOException {
+        // One "number x y" line per city; the numbers start at 1 but need not be in order
+        boolean[] seen = new boolean[xs.length];
+        for (int k = 0; k < xs.length; k++) {
+            skipWhitespace();
+            int city = (int) readNumber() - 1;
+            if (city < 0 || city >= xs.length || seen[city]) throw error("Invalid or repeated node " + (city + 1));
+            seen[city] = true;
+            skipWhitespace();
+            xs[city] = readNumber();
+            skipWhitespace();
+            ys[city] = readNumber();
+        }
+    }
+
+
+    private void readWeights(double[] weights, int n, String format) throws IOException {
+        // For a symmetric matrix every column-wise format lists the weights in the same order as the
+        // row-wise format of the opposite triangle
+        switch (format) {
+            case "FULL_MATRIX" -> {
+                for (int i = 0; i < n * n; i++) {
+                    skipWhitespace();
+                    weights[i] = readNumber();
+                }
+            }
+            case "UPPER_ROW", "LOWER_COL" -> readTriangle(weights, n, true, false);
+            case "LOWER_ROW", "UPPER_COL" -> readTriangle(weights, n, false, false);
+            case "UPPER_DIAG_ROW", "LOWER_DIAG_COL" -> readTriangle(weights, n, true, true);
+            case "LOWER_DIAG_ROW", "UPPER_DIAG_COL" -> readTriangle(weights, n, false, true);
+            default -> throw error("Unsupported EDGE_WEIGHT_FORMAT " + format);
+        }
+    }
+
+
+    private void readTriangle(double[] weights, int n, boolean upper, boolean diagonal) throws IOException {
+        for (int i = 0; i < n; i++) {
+            int from = upper ? (diagonal ? i : i + 1) : 0;
+            int to = upper ? n : (diagonal ? i + 1 : i);
+            for (int j = from; j < to; j++) {
+                skipWhitespace();
+                double weight = readNumber();
+                weights[i * n + j] = weight;
+                weights[j * n + i] = weight;
+            }
+        }
+    }
+
+
+    private TspInstance readCsv(String name) throws IOException {
+        // The first line is a header unless it starts with a number:
+        skipWhitespace();
+        if (position < limit && !isNumberStart(buffer.get(position))) skipLine();
+        int capacity = Math.max(16, limit / 16); // rough guess of the line count, grown when needed
+        double[] xs = new double[capacity];
+        double[] ys = new double[capacity];
+        int count = 0;
+        int columns = 0; // fields per line, taken from the first data line
+        while (skipWhitespace()) {
+            if (count == xs.length) {
+                xs = Arrays.copyOf(xs, 2 * count);
+                ys = Arrays.copyOf(ys, 2 * count);
+            }
+            double first = readField();
+            double second = readField();
+            boolean third = !atLineEnd();
+            if (columns == 0) columns = third ? 3 : 2; // the first data line decides between x,y and id,x,y
+            if (columns == 2) {
+                xs[count] = first;
+                ys[count] = second;
+            } else { // id, x, y, and maybe more fields that are ignored
+                if (!third) throw error("Expected at least three fields");
+                xs[count] = second;
+                ys[count] = readField();
+            }
+            count++;
+            skipLine();
+        }
+        if (count == 0) throw new IOException(path + ": no cities found");
+        xs = Arrays.copyOf(xs, count);
+        ys = Arrays.copyOf(ys, count);
+        return new TspInstance(name, xs, ys, new DistanceMatrix(xs, ys));
+    }
+
+
+    private double readField() throws IOException {
+        // A number with the spaces and the separator after it
+        skipSpaces();
+        if (atLineEnd()) throw error("Expected at least two fields");
+        double value = readNumber();
+        skipSpaces();
+        if (position < limit) {
+            byte b = buffer.get(position);
+            if (b == ',' || b == ';') position++;
+        }
+        return value;
+    }
+
+
+    private double readNumber() throws IOException {
+        // Decimal number with optional sign, fraction and exponent. Up to 15 significant digits the mantissa
+        // is exact, so scaling it by an exact power of ten rounds only once and gives the same result as
+        // Double.parseDouble; anything else falls back to it.
+        int start = position;
+        boolean negative = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position++) == '-';
+        }
+        long mantissa = 0;
+        int digits = 0; // significant digits in the mantissa
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean exact = true;
+        byte b;
+        while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+            anyDigit = true;
+            if (digits < MAX_EXACT_DIGITS) {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exact = false;
+            }
+            position++;
+        }
+        if (position < limit && buffer.get(position) == '.') {
+            position++;
+            while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+                anyDigit = true;
+                if (digits < MAX_EXACT_DIGITS) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                } else if (b != '0') {
+                    exact = false;
+                }
+                position++;
+            }
+        }
+        if (!anyDigit) throw error("Expected a number");
+        if (position < limit && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negativeExponent = buffer.get(position++) == '-';
+            }
+            int value = 0;
+            boolean anyExponentDigit = false;
+            while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+                anyExponentDigit = true;
+                if (value < 10000) value = value * 10 + (b - '0');
+                position++;
+            }
+            if (!anyExponentDigit) throw error("Invalid exponent");
+            exponent += negativeExponent ? -value : value;
+        }
+        if (position < limit && !isDelimiter(buffer.get(position))) throw error("Invalid number");
+        double value;
+        if (exact && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            if (negative) value = -value;
+        } else {
+            value = parseSlowly(start);
+        }
+        return value;
+    }
+
+
+    private double parseSlowly(int start) {
+        byte[] bytes = new byte[position - start];
+        buffer.get(start, bytes);
+        return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+
+    private String readKeyword() {
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == ':' || b == ' ' || b == '\t' || b == '\r' || b == '\n') break;
+            position++;
+        }
+        byte[] bytes = new byte[position - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+
+    private String readRestOfLine() {
+        int start = position;
+        skipLine();
+        byte[] bytes = new byte[position - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII).trim();
+    }
+
+
+    private boolean skipWhitespace() { // skips spaces and line breaks; returns whether anything is left
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') return true;
+            position++;
+        }
+        return false;
+    }
+
+
+    private void skipSpaces() { // skips spaces, but stays on the line
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t') return;
+            position++;
+        }
+    }
+
+
+    private void skipLine() { // moves past the next line break
+        while (position < limit && buffer.get(position++) != '\n') {
+            // skipping
+        }
+    }
+
+
+    private boolean atLineEnd() {
+        return position >= limit || buffer.get(position) == '\n' || buffer.get(position) == '\r';
+    }
+
+
+    private static boolean isNumberStart(byte b) {
+        return b >= '0' && b <= '9' || b == '-' || b == '+' || b == '.';
+    }
+
+
+    private static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == ',' || b == ';';
+    }
+
+
+    private IOException error(String message) {
+        // Counting the lines only now, so the parser does not have to track them
+        int line = 1;
+        for (int i = 0; i < Math.min(position, limit); i++) {
+            if (buffer.get(i) == '\n') line++;
+        }
+        return new IOException(path + ", line " + line + ": " + message);
+    }
+}
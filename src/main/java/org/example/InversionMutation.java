@@ -0,0 +1,38 @@
+package org.example;
+
+
+/**
+ * Inversion mutation: every city is, with probability mutationRate, the start or end of a reversed stretch
+ * of the route reaching to a random other position.
+ * <p>
+ * Reversing positions i..j keeps every inner edge and only replaces the two edges at its ends, so the change
+ * in route length is known in constant time, before the reversal is even done.
+ */
+public class InversionMutation implements Mutation {
+
+    @Override
+    public double mutate(int[] routes, int offset, int numberOfCities, double mutationRate,
+                         Rng random, DistanceMatrix distanceMatrix) {
+        double delta = 0;
+        for (int position = 0; position < numberOfCities; position++) {
+            if (random.nextDouble() < mutationRate) { // Checking if mutation should occur based on the mutation rate
+                int other = (int) (random.nextDouble() * numberOfCities);
+                int i = Math.min(position, other);
+                int j = Math.max(position, other);
+                if (j - i < 1 || j - i >= numberOfCities - 1) continue; // reversing all or nothing changes nothing
+                int before = routes[offset + (i == 0 ? numberOfCities - 1 : i - 1)];
+                int after = routes[offset + (j == numberOfCities - 1 ? 0 : j + 1)];
+                int first = routes[offset + i];
+                int last = routes[offset + j];
+                delta += distanceMatrix.distance(before, last) + distanceMatrix.distance(first, after)
+                        - distanceMatrix.distance(before, first) - distanceMatrix.distance(last, after);
+                for (int a = offset + i, b = offset + j; a < b; a++, b--) { // reversing the stretch
+                    int city = routes[a];
+                    routes[a] = routes[b];
+                    routes[b] = city;
+                }
+            }
+        }
+        return delta;
+    }
+}
@@ -0,0 +1,235 @@
+package org.example;
+
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * Island model: several independent populations, each evolved by its own {@link GeneticAlgorithm} on its own
+ * thread, that regularly exchange their best individuals. With {@code threads > 1} in the configuration, the
+ * workers of all islands share one pool of that many threads, so more islands do not mean more busy threads.
+ * <p>
+ * The islands evolve in epochs of {@code migrationInterval} generations and then meet at a barrier. The last
+ * island to arrive runs the migration for everybody while the others wait: every island sends copies of its
+ * {@code migrantCount} best individuals to the islands the {@link MigrationTopology} connects it to, where
+ * they replace the worst individuals. Because migration happens at fixed points and the topology draws from
+ * a seeded generator, a run is reproducible for a given seed. The same step also checks the stop conditions
+ * of the {@link SolverConfig} against the best distance over all islands.
+ * <p>
+ * With a {@link SocketMigrationLink} set, the best island additionally sends its migrants to another JVM at
+ * every migration, and a batch received from there replaces the worst individuals of one island. The link
+ * buffers both directions, so a slow or stalled process never holds up the barrier.
+ */
+public class IslandModel {
+
+    private final DistanceMatrix distanceMatrix;
+    private final SolverConfig config; // settings of every island; each island gets its own seed
+    private final int islands;
+    private final int migrationInterval;
+    private final int migrantCount;
+    private final MigrationTopology topology;
+    private final List<SolverListener> listeners = new CopyOnWriteArrayList<>();
+    private SocketMigrationLink remoteLink;
+
+    // Run state, only touched by the island threads between barriers and by the barrier action:
+    private GeneticAlgorithm[] gas;
+    private double[][] epochBestDistances; // best distance of every island in every generation of the epoch
+    private double[] islandBestDistances; // best distance every island has ever had...
+    private int[][] islandBestRoutes; // ...and the route that had it
+    private int epochLength;
+    private boolean stop;
+    private int generationCount;
+    private int genWithBestDistance;
+    private int generationsWithNoImprovement;
+    private double bestDistance;
+    private int[] bestRoute;
+    private ProgressRecorder history;
+    private Rng migrationRandom;
+    private int[] migrants; // emigrants of every island, migrantCount routes each
+    private double[] migrantDistances;
+    private int[] sources;
+    private int migrations;
+
+
+    public IslandModel(DistanceMatrix distanceMatrix, SolverConfig config, int islands, int migrationInterval,
+                       int migrantCount, MigrationTopology topology) {
+        if (islands < 2) throw new IllegalArgumentException("An island model needs at least two islands");
+        if (migrationInterval < 1) throw new IllegalArgumentException("migrationInterval must be positive");
+        if (migrantCount < 1 || migrantCount > config.getPopulationSize() / 2) {
+            throw new IllegalArgumentException("migrantCount must be between 1 and half the population size");
+        }
+        this.distanceMatrix = distanceMatrix;
+        this.config = config;
+        this.islands = islands;
+        this.migrationInterval = migrationInterval;
+        this.migrantCount = migrantCount;
+        this.topology = topology;
+    }
+
+
+    public void addListener(SolverListener listener) { // notified once per epoch, after the migration
+        listeners.add(listener);
+    }
+
+
+    public void setRemoteLink(SocketMigrationLink remoteLink) {
+        this.remoteLink = remoteLink;
+    }
+
+
+    public SolverResult solve() {
+        long startTime = System.nanoTime();
+        int numberOfCities = distanceMatrix.size();
+        Rng seeds = new Rng(config.getSeed());
+        gas = new GeneticAlgorithm[islands];
+        epochBestDistances = new double[islands][migrationInterval];
+        islandBestDistances = new double[islands];
+        islandBestRoutes = new int[islands][numberOfCities + 1];
+        migrants = new int[islands * migrantCount * numberOfCities];
+        migrantDistances = new double[islands * migrantCount];
+        sources = new int[islands - 1];
+        migrationRandom = seeds.split();
+        bestRoute = new int[numberOfCities + 1];
+        history = new ProgressRecorder();
+        bestDistance = Double.MAX_VALUE;
+        generationCount = 0;
+        genWithBestDistance = 0;
+        generationsWithNoImprovement = 0;
+        migrations = 0;
+        ForkJoinPool pool = config.getThreads() > 1 ? new ForkJoinPool(config.getThreads()) : null;
+        try {
+            for (int i = 0; i < islands; i++) {
+                gas[i] = new GeneticAlgorithm(distanceMatrix, config.toBuilder().seed(seeds.nextLong()).build(),
+                        pool);
+                islandBestDistances[i] = gas[i].getBestDistanceInPop();
+                gas[i].copyBestRouteInPop(islandBestRoutes[i]);
+                if (islandBestDistances[i] < bestDistance) {
+                    bestDistance = islandBestDistances[i];
+                    System.arraycopy(islandBestRoutes[i], 0, bestRoute, 0, bestRoute.length);
+                }
+            }
+            epochLength = Math.min(migrationInterval, config.getMaxGenerations());
+            stop = epochLength == 0 || config.getMaxGenerationsWithNoImprovement() == 0;
+            if (!stop) runIslands();
+        } finally {
+            for (GeneticAlgorithm ga : gas) {
+                if (ga != null) ga.close();
+            }
+            if (pool != null) pool.shutdown();
+        }
+        SolverResult result = new SolverResult(bestRoute, bestDistance, generationCount, genWithBestDistance,
+                System.nanoTime() - startTime, history.getSeries());
+        for (SolverListener listener : listeners) listener.onFinish(result);
+        gas = null;
+        return result;
+    }
+
+
+    private void runIslands() {
+        CyclicBarrier barrier = new CyclicBarrier(islands, this::endEpoch);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        Thread[] threads = new Thread[islands];
+        for (int i = 0; i < islands; i++) {
+            int island = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    while (true) {
+                        for (int g = 0; g < epochLength; g++) {
+                            gas[island].evolvePopulation();
+                            double currentBestDistance = gas[island].getBestDistanceInPop();
+                            epochBestDistances[island][g] = currentBestDistance;
+                            if (currentBestDistance < islandBestDistances[island]) {
+                                islandBestDistances[island] = currentBestDistance;
+                                gas[island].copyBestRouteInPop(islandBestRoutes[island]);
+                            }
+                        }
+                        barrier.await(); // the last island to arrive runs endEpoch() for everybody
+                        if (stop) return;
+                    }
+                } catch (BrokenBarrierException e) {
+                    // another island failed; its exception is reported instead
+                } catch (InterruptedException e) {
+                    failures.add(e);
+                    barrier.reset();
+                } catch (RuntimeException | Error e) {
+                    failures.add(e);
+                    barrier.reset(); // releasing the other islands
+                }
+            }, "island-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Thread t : threads) t.interrupt();
+                throw new IllegalStateException("Interrupted while running the islands", e);
+            }
+        }
+        if (!failures.isEmpty()) throw new IllegalStateException("Island failed", failures.getFirst());
+    }
+
+
+    private void endEpoch() {
+        // Bookkeeping for the generations of the epoch, as TspSolver does it per generation:
+        int bestIsland = 0;
+        for (int g = 0; g < epochLength; g++) {
+            double currentBestDistance = Double.MAX_VALUE;
+            for (int i = 0; i < islands; i++) {
+                currentBestDistance = Math.min(currentBestDistance, epochBestDistances[i][g]);
+            }
+            history.record(currentBestDistance);
+            if (currentBestDistance < bestDistance) {
+                bestDistance = currentBestDistance;
+                genWithBestDistance = generationCount;
+                generationsWithNoImprovement = 0;
+            } else generationsWithNoImprovement++;
+            generationCount++;
+        }
+        for (int i = 1; i < islands; i++) {
+            if (islandBestDistances[i] < islandBestDistances[bestIsland]) bestIsland = i;
+        }
+        if (islandBestDistances[bestIsland] <= bestDistance) {
+            System.arraycopy(islandBestRoutes[bestIsland], 0, bestRoute, 0, bestRoute.length);
+        }
+
+        migrate(bestIsland);
+        for (SolverListener listener : listeners) {
+            listener.onGeneration(generationCount - 1, history.getLast(), bestDistance,
+                    bestRoute, genWithBestDistance);
+        }
+        epochLength = Math.min(migrationInterval, config.getMaxGenerations() - generationCount);
+        stop = epochLength <= 0
+                || generationsWithNoImprovement >= config.getMaxGenerationsWithNoImprovement();
+    }
+
+
+    private void migrate(int bestIsland) {
+        // Collecting the emigrants of all islands first, so every island sends what it had before the exchange:
+        for (int i = 0; i < islands; i++) {
+            gas[i].copyBestIndividuals(migrantCount, migrants, i * migrantCount, migrantDistances, i * migrantCount);
+        }
+        for (int i = 0; i < islands; i++) {
+            int count = topology.sources(i, islands, migrationRandom, sources);
+            for (int s = 0; s < count; s++) {
+                gas[i].replaceWorstIndividuals(migrantCount, migrants, sources[s] * migrantCount,
+                        migrantDistances, sources[s] * migrantCount);
+            }
+        }
+        if (remoteLink != null) {
+            // The best island's emigrants go to the next process, and whatever arrived from the previous one
+            // replaces the worst individuals of the islands in turn:
+            remoteLink.send(migrants, bestIsland * migrantCount, migrantCount);
+            SocketMigrationLink.Batch batch = remoteLink.poll();
+            if (batch != null) {
+                int count = Math.min(batch.count(), config.getPopulationSize() / 2);
+                gas[migrations % islands].replaceWorstIndividuals(count, batch.routes(), 0, batch.distances(), 0);
+            }
+        }
+        migrations++;
+    }
+}
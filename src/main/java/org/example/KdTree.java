@@ -0,0 +1,234 @@
+package org.example;
+
+
+/**
+ * Static 2-d tree over the city coordinates for nearest-neighbour queries in O(log N) on average.
+ * <p>
+ * The tree is implicit: the cities are permuted so that every node is a range of the array whose middle
+ * element splits it along the wider axis of its bounding box; ranges of at most LEAF_SIZE cities are leaves
+ * that are scanned linearly. Building it takes O(N log N). Cities can be removed (and all restored with
+ * {@link #reset()}), which is what constructive tours need to find the nearest city not visited yet; every
+ * node counts the cities left in it, so emptied parts of the tree are skipped.
+ * <p>
+ * Distances are squared Euclidean distances between the coordinates as given, so the ranking matches every
+ * {@link Metric} except GEO, for which it is an approximation. Instances are not thread-safe.
+ */
+final class KdTree {
+
+    private static final int LEAF_SIZE = 8;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int size;
+    private final int[] cities; // cities in tree order
+    private final int[] positions; // positions[c] is the index of city c in cities
+    private final boolean[] splitOnX; // by node, a node being identified by the middle index of its range
+    private final int[] initialCounts; // cities per node in the full tree
+    private final int[] remaining; // cities per node that have not been removed
+    private final boolean[] removed; // by city
+
+    // State of the current query:
+    private double queryX;
+    private double queryY;
+    private int excluded;
+    private int k;
+    private int found;
+    private final double[] heapDistances; // max-heap of the best candidates found so far, farthest on top
+    private final int[] heapCities;
+
+
+    KdTree(double[] xs, double[] ys, int maxK) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = xs.length;
+        this.cities = new int[size];
+        this.positions = new int[size];
+        this.splitOnX = new boolean[size];
+        this.initialCounts = new int[size];
+        this.remaining = new int[size];
+        this.removed = new boolean[size];
+        this.heapDistances = new double[Math.max(1, maxK)];
+        this.heapCities = new int[heapDistances.length];
+        for (int i = 0; i < size; i++) cities[i] = i;
+        build(0, size);
+        for (int i = 0; i < size; i++) positions[cities[i]] = i;
+        System.arraycopy(initialCounts, 0, remaining, 0, size);
+    }
+
+
+    private void build(int lo, int hi) {
+        int node = (lo + hi) >>> 1;
+        initialCounts[node] = hi - lo;
+        if (hi - lo <= LEAF_SIZE) return;
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = lo; i < hi; i++) {
+            int city = cities[i];
+            minX = Math.min(minX, xs[city]);
+            maxX = Math.max(maxX, xs[city]);
+            minY = Math.min(minY, ys[city]);
+            maxY = Math.max(maxY, ys[city]);
+        }
+        boolean byX = maxX - minX >= maxY - minY;
+        splitOnX[node] = byX;
+        select(lo, hi - 1, node, byX ? xs : ys);
+        build(lo, node);
+        build(node + 1, hi);
+    }
+
+
+    private void select(int left, int right, int k, double[] keys) {
+        // Quickselect: rearranging cities[left..right] so that the k-th one is in its sorted place, with
+        // nothing greater before it and nothing smaller after it
+        while (left < right) {
+            int middle = (left + right) >>> 1;
+            // median of three as pivot, so sorted or clustered input does not degrade
+            double a = keys[cities[left]], b = keys[cities[middle]], c = keys[cities[right]];
+            double pivot = a < b ? (b < c ? b : Math.max(a, c)) : (a < c ? a : Math.max(b, c));
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[cities[i]] < pivot) i++;
+                while (keys[cities[j]] > pivot) j--;
+                if (i <= j) {
+                    int tmp = cities[i];
+                    cities[i] = cities[j];
+                    cities[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+
+
+    /**
+     * Writes the (up to) {@code k} nearest other cities of {@code city} into {@code result}, nearest first,
+     * and returns how many there are. Removed cities are left out.
+     */
+    int nearest(int city, int k, int[] result) {
+        query(xs[city], ys[city], city, k);
+        int count = found;
+        for (int i = count - 1; i >= 0; i--) { // taking the farthest off the heap first
+            result[i] = heapCities[0];
+            popHeap();
+        }
+        return count;
+    }
+
+
+    /**
+     * The nearest city to (x, y) that has not been removed, or -1 if all have been.
+     */
+    int nearestRemaining(double x, double y) {
+        query(x, y, -1, 1);
+        return found == 0 ? -1 : heapCities[0];
+    }
+
+
+    void remove(int city) {
+        if (removed[city]) return;
+        removed[city] = true;
+        int position = positions[city];
+        int lo = 0;
+        int hi = size;
+        while (true) { // descending to the node holding the city by position, counting down on the way
+            int node = (lo + hi) >>> 1;
+            remaining[node]--;
+            if (hi - lo <= LEAF_SIZE || position == node) return;
+            if (position < node) hi = node;
+            else lo = node + 1;
+        }
+    }
+
+
+    void reset() { // restoring all removed cities
+        System.arraycopy(initialCounts, 0, remaining, 0, size);
+        java.util.Arrays.fill(removed, false);
+    }
+
+
+    private void query(double x, double y, int excluded, int k) {
+        if (k > heapDistances.length) throw new IllegalArgumentException("k is larger than " + heapDistances.length);
+        this.queryX = x;
+        this.queryY = y;
+        this.excluded = excluded;
+        this.k = k;
+        this.found = 0;
+        search(0, size);
+    }
+
+
+    private void search(int lo, int hi) {
+        if (lo >= hi) return;
+        int node = (lo + hi) >>> 1;
+        if (remaining[node] == 0) return;
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) consider(cities[i]);
+            return;
+        }
+        int city = cities[node];
+        consider(city);
+        double difference = splitOnX[node] ? queryX - xs[city] : queryY - ys[city];
+        // The side the query point is on first; the other side only if it can still hold something closer
+        if (difference < 0) {
+            search(lo, node);
+            if (difference * difference < worstDistance()) search(node + 1, hi);
+        } else {
+            search(node + 1, hi);
+            if (difference * difference < worstDistance()) search(lo, node);
+        }
+    }
+
+
+    private double worstDistance() {
+        return found < k ? Double.MAX_VALUE : heapDistances[0];
+    }
+
+
+    private void consider(int city) {
+        if (city == excluded || removed[city]) return;
+        double x = xs[city] - queryX;
+        double y = ys[city] - queryY;
+        double distance = x * x + y * y;
+        if (found < k) { // adding to the heap and sifting up
+            int i = found++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapDistances[parent] >= distance) break;
+                heapDistances[i] = heapDistances[parent];
+                heapCities[i] = heapCities[parent];
+                i = parent;
+            }
+            heapDistances[i] = distance;
+            heapCities[i] = city;
+        } else if (distance < heapDistances[0]) { // replacing the farthest and sifting down
+            siftDown(distance, city, found);
+        }
+    }
+
+
+    private void popHeap() {
+        found--;
+        if (found > 0) siftDown(heapDistances[found], heapCities[found], found);
+    }
+
+
+    private void siftDown(double distance, int city, int count) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= count) break;
+            if (child + 1 < count && heapDistances[child + 1] > heapDistances[child]) child++;
+            if (heapDistances[child] <= distance) break;
+            heapDistances[i] = heapDistances[child];
+            heapCities[i] = heapCities[child];
+            i = child;
+        }
+        heapDistances[i] = distance;
+        heapCities[i] = city;
+    }
+}
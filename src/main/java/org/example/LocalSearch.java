@@ -0,0 +1,250 @@
+package org.example;
+
+
+/**
+ * 2-opt and Or-opt local search used by the memetic mode.
+ * <p>
+ * Moves are only tried towards the {@link NeighbourLists} candidates of a city and evaluated by delta:
+ * just the two or three edges a move removes and adds are looked up, never the whole tour. Cities whose
+ * neighbourhood yielded no improvement are switched off (don't-look bits) until a later move touches one of
+ * their edges again, so the search stops as soon as no active city is left.
+ * <p>
+ * An instance keeps its own working arrays and must only be used by one thread at a time.
+ */
+public class LocalSearch {
+
+    public static final int MIN_CITIES = 8; // smaller tours are left alone
+    private static final int MAX_SEGMENT_LENGTH = 3; // longest segment Or-opt moves
+    private static final double EPSILON = 1e-9; // improvements below this are treated as rounding noise
+
+    private final DistanceMatrix distanceMatrix;
+    private final NeighbourLists neighbourLists;
+    private final int n;
+    private final int[] tour; // working copy of the tour being improved
+    private final int[] position; // position[c] is the index of city c in tour
+    private final int[] queue; // active cities (those with their don't-look bit cleared), circular
+    private final boolean[] queued;
+    private int queueHead;
+    private int queueSize;
+    private final int[] segment = new int[MAX_SEGMENT_LENGTH];
+
+
+    public LocalSearch(DistanceMatrix distanceMatrix, NeighbourLists neighbourLists) {
+        this.distanceMatrix = distanceMatrix;
+        this.neighbourLists = neighbourLists;
+        this.n = distanceMatrix.size();
+        this.tour = new int[n];
+        this.position = new int[n];
+        this.queue = new int[n];
+        this.queued = new boolean[n];
+    }
+
+
+    /**
+     * Improves the tour in {@code tours[offset, offset + numberOfCities)} in place until no active city is
+     * left, and returns its new length. As usual with don't-look bits the result is nearly, not strictly,
+     * 2-opt and Or-opt optimal: a move that only a switched-off city would have found is missed.
+     */
+    public double improve(int[] tours, int offset, double length) {
+        if (n < MIN_CITIES) return length;
+        System.arraycopy(tours, offset, tour, 0, n);
+        queueHead = 0;
+        queueSize = 0;
+        for (int i = 0; i < n; i++) {
+            position[tour[i]] = i;
+            push(tour[i]); // at first every city is active
+        }
+        boolean improved = false;
+        while (queueSize > 0) {
+            int city = poll();
+            if (twoOptMove(city) || orOptMove(city)) improved = true; // endpoints of the move were re-activated
+        }
+        if (!improved) return length;
+        System.arraycopy(tour, 0, tours, offset, n);
+        // Recomputing the length once instead of summing up the gains, so no rounding error can build up:
+        return distanceMatrix.tourLength(tours, offset, n);
+    }
+
+
+    private boolean twoOptMove(int a) {
+        // Replacing the edges (a, b) and (c, d) with (a, c) and (b, d), where c is a near neighbour of a and b/d
+        // are the successors (first pass) or predecessors (second pass) of a/c
+        for (int pass = 0; pass < 2; pass++) {
+            boolean successor = pass == 0;
+            int b = successor ? next(a) : previous(a);
+            double removedAB = dist(a, b);
+            for (int r = 0; r < neighbourLists.k(); r++) {
+                int c = neighbourLists.get(a, r);
+                double addedAC = dist(a, c);
+                if (addedAC >= removedAB - EPSILON) break; // neighbours are sorted, nothing better follows
+                int d = successor ? next(c) : previous(c);
+                if (d == a || c == b) continue;
+                double gain = removedAB + dist(c, d) - addedAC - dist(b, d);
+                if (gain > EPSILON) {
+                    if (successor) reverse(position[b], position[c]); // a b ... c d  ->  a c ... b d
+                    else reverse(position[a], position[d]); // d c ... b a  ->  d b ... c a
+                    push(a);
+                    push(b);
+                    push(c);
+                    push(d);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    private boolean orOptMove(int a) {
+        // Moving the segment of 1 to 3 cities that starts at a between two other neighbouring cities,
+        // in either orientation
+        int start = position[a];
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+            int first = a;
+            int last = tour[(start + length - 1) % n];
+            int before = previous(first);
+            int after = next(last);
+            double removeGain = dist(before, first) + dist(last, after) - dist(before, after);
+            if (removeGain <= EPSILON) continue;
+            for (int end = 0; end < 2; end++) { // candidates near either end of the segment
+                int endpoint = end == 0 ? first : last;
+                int other = end == 0 ? last : first;
+                for (int r = 0; r < neighbourLists.k(); r++) {
+                    int c = neighbourLists.get(endpoint, r);
+                    double addedEndpoint = dist(endpoint, c);
+                    if (addedEndpoint >= removeGain - EPSILON) break;
+                    if (inSegment(c, start, length)) continue;
+                    // c then the segment (starting with endpoint), then c's old successor:
+                    int cNext = next(c);
+                    if (!inSegment(cNext, start, length)) {
+                        double added = addedEndpoint + dist(other, cNext) - dist(c, cNext);
+                        if (added < removeGain - EPSILON) {
+                            moveSegment(start, length, c, endpoint == last);
+                            push(first);
+                            push(last);
+                            push(before);
+                            push(after);
+                            push(c);
+                            push(cNext);
+                            return true;
+                        }
+                    }
+                    // c's old predecessor, then the segment (ending with endpoint), then c:
+                    int cPrevious = previous(c);
+                    if (!inSegment(cPrevious, start, length)) {
+                        double added = addedEndpoint + dist(other, cPrevious) - dist(cPrevious, c);
+                        if (added < removeGain - EPSILON) {
+                            moveSegment(start, length, cPrevious, endpoint == first);
+                            push(first);
+                            push(last);
+                            push(before);
+                            push(after);
+                            push(c);
+                            push(cPrevious);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+
+    private void reverse(int from, int to) {
+        // Reversing the cyclic run of positions from..to; if that run is longer than half the tour, its
+        // complement is reversed instead, which gives the same cycle at half the cost at most
+        int length = (to - from + n) % n + 1;
+        if (2 * length > n) {
+            int newFrom = (to + 1) % n;
+            to = (from - 1 + n) % n;
+            from = newFrom;
+            length = n - length;
+        }
+        for (int s = 0; s < length / 2; s++) {
+            int cityFrom = tour[from];
+            int cityTo = tour[to];
+            tour[from] = cityTo;
+            position[cityTo] = from;
+            tour[to] = cityFrom;
+            position[cityFrom] = to;
+            from = from + 1 == n ? 0 : from + 1;
+            to = to == 0 ? n - 1 : to - 1;
+        }
+    }
+
+
+    private void moveSegment(int start, int length, int c, boolean reversed) {
+        // Moving the segment at positions start..start+length-1 between city c and its successor by shifting
+        // the cities on the shorter side of the gap over by length positions
+        for (int k = 0; k < length; k++) segment[k] = tour[(start + k) % n];
+        int forwardGap = (position[c] - (start + length - 1) + n) % n; // cities after the segment up to c
+        int backwardGap = n - length - forwardGap; // cities after c up to the one before the segment
+        int slot;
+        if (forwardGap <= backwardGap) {
+            int to = start;
+            int from = (start + length) % n;
+            for (int t = 0; t < forwardGap; t++) { // shifting the cities after the segment back
+                tour[to] = tour[from];
+                position[tour[to]] = to;
+                to = (to + 1) % n;
+                from = (from + 1) % n;
+            }
+            slot = to;
+        } else {
+            int to = (start + length - 1) % n;
+            int from = (start - 1 + n) % n;
+            for (int t = 0; t < backwardGap; t++) { // shifting the cities before the segment forward
+                tour[to] = tour[from];
+                position[tour[to]] = to;
+                to = (to - 1 + n) % n;
+                from = (from - 1 + n) % n;
+            }
+            slot = (to - length + 1 + n) % n;
+        }
+        for (int k = 0; k < length; k++) {
+            int city = reversed ? segment[length - 1 - k] : segment[k];
+            int p = (slot + k) % n;
+            tour[p] = city;
+            position[city] = p;
+        }
+    }
+
+
+    private boolean inSegment(int city, int start, int length) {
+        return (position[city] - start + n) % n < length;
+    }
+
+
+    private int next(int city) {
+        int p = position[city] + 1;
+        return tour[p == n ? 0 : p];
+    }
+
+
+    private int previous(int city) {
+        int p = position[city];
+        return tour[p == 0 ? n - 1 : p - 1];
+    }
+
+
+    private double dist(int from, int to) {
+        return distanceMatrix.distance(from, to);
+    }
+
+
+    private void push(int city) { // clearing the don't-look bit of a city
+        if (queued[city]) return;
+        queued[city] = true;
+        queue[(queueHead + queueSize++) % n] = city;
+    }
+
+
+    private int poll() {
+        int city = queue[queueHead];
+        queueHead = (queueHead + 1) % n;
+        queueSize--;
+        queued[city] = false;
+        return city;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example;
+
+
+/**
+ * Which individuals the memetic mode improves with 2-opt / Or-opt local search every generation.
+ */
+public enum LocalSearchMode {
+    NONE, // plain genetic algorithm
+    ELITE, // only the eliteSize best individuals of each new generation
+    ALL // every individual of each new generation
+}
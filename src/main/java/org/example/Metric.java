@@ -0,0 +1,57 @@
+package org.example;
+
+
+/**
+ * How the distance between two cities is computed from their coordinates.
+ * <p>
+ * {@link #EUCLIDEAN} is the exact straight-line distance the generated instances use. The others are the
+ * TSPLIB edge weight types of the same name, which round to integers as the library defines it, so tour
+ * lengths of loaded instances can be compared with published optima.
+ */
+public enum Metric {
+    EUCLIDEAN, // exact straight-line distance
+    EUC_2D, // straight-line distance rounded to the nearest integer
+    CEIL_2D, // straight-line distance rounded up
+    GEO, // great-circle distance in km; coordinates are latitude/longitude given as DDD.MM (degrees.minutes)
+    ATT; // pseudo-Euclidean distance of the att48/att532 instances
+
+    private static final double PI = 3.141592; // TSPLIB defines GEO with this value, not Math.PI
+    private static final double EARTH_RADIUS = 6378.388;
+
+
+    /**
+     * Converts a coordinate the way this metric expects it in {@link #distance}: GEO coordinates are turned
+     * into radians, all others are used as they are.
+     */
+    double prepare(double coordinate) {
+        if (this != GEO) return coordinate;
+        int degrees = (int) coordinate;
+        double minutes = coordinate - degrees;
+        return PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+
+
+    /**
+     * Distance between (x1, y1) and (x2, y2), both already converted by {@link #prepare}.
+     */
+    double distance(double x1, double y1, double x2, double y2) {
+        double x = x2 - x1;
+        double y = y2 - y1;
+        return switch (this) {
+            case EUCLIDEAN -> Math.sqrt(x * x + y * y);
+            case EUC_2D -> (int) (Math.sqrt(x * x + y * y) + 0.5);
+            case CEIL_2D -> Math.ceil(Math.sqrt(x * x + y * y));
+            case GEO -> { // x is the latitude, y the longitude
+                double q1 = Math.cos(y1 - y2);
+                double q2 = Math.cos(x1 - x2);
+                double q3 = Math.cos(x1 + x2);
+                yield (int) (EARTH_RADIUS * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+            }
+            case ATT -> {
+                double r = Math.sqrt((x * x + y * y) / 10.0);
+                int t = (int) (r + 0.5);
+                yield t < r ? t + 1 : t;
+            }
+        };
+    }
+}
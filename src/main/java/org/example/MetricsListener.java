@@ -0,0 +1,12 @@
+package org.example;
+
+
+/**
+ * Receives the samples of a {@link SolverMetrics}, e.g. to log them or to export them to a monitoring system.
+ * Called on the solver thread, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface MetricsListener {
+
+    void onMetrics(MetricsSnapshot snapshot);
+}
@@ -0,0 +1,37 @@
+package org.example;
+
+
+/**
+ * One sample of the runtime metrics of a run.
+ * <p>
+ * Phase times are cumulative since the run (or the resumed part of it) started and summed over all worker
+ * threads, so with several threads they may add up to more than the elapsed time. Rates cover the time since
+ * the previous sample. edgeEntropy measures how diverse the population is: 1 when no two of the sampled
+ * individuals share an edge, 0 when they are all the same tour. The last three describe adaptive control
+ * (see {@link SolverConfig#isAdaptive()}): the mutation rate in use, the restarts so far, and the current
+ * probability of every operator, e.g. {@code "TOURNAMENT 62%, ROULETTE 38% | ORDER 40%, ... | SWAP 10%, ..."},
+ * which is empty without adaptive control.
+ */
+public record MetricsSnapshot(
+        int generation,
+        long elapsedNanos,
+        double generationsPerSecond,
+        double currentBestDistance,
+        double bestDistance,
+        long selectionNanos,
+        long crossoverNanos,
+        long mutationNanos,
+        long evaluationNanos,
+        long localSearchNanos,
+        long listenerNanos, // solver thread time spent in SolverListeners, including the frame snapshots
+        long renderNanos, // render thread time reported by RouteChartListeners
+        double allocatedBytesPerSecond, // whole JVM; NaN where the JVM cannot measure it
+        double edgeEntropy,
+        int generationsWithNoImprovement,
+        int longestStagnation, // most generations in a row without improvement so far
+        int improvements, // generations that improved the best distance
+        double mutationRate,
+        int restarts,
+        String operatorProbabilities
+) {
+}
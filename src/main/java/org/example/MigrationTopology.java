@@ -0,0 +1,41 @@
+package org.example;
+
+
+/**
+ * Which islands of an {@link IslandModel} send their best individuals to which.
+ */
+public enum MigrationTopology {
+
+    RING { // every island receives from the island before it
+        @Override
+        public int sources(int island, int islands, Rng random, int[] sources) {
+            sources[0] = (island - 1 + islands) % islands;
+            return 1;
+        }
+    },
+    FULLY_CONNECTED { // every island receives from every other island
+        @Override
+        public int sources(int island, int islands, Rng random, int[] sources) {
+            int count = 0;
+            for (int other = 0; other < islands; other++) {
+                if (other != island) sources[count++] = other;
+            }
+            return count;
+        }
+    },
+    RANDOM { // every island receives from one other island, chosen anew at each migration
+        @Override
+        public int sources(int island, int islands, Rng random, int[] sources) {
+            int other = random.nextInt(islands - 1);
+            sources[0] = other >= island ? other + 1 : other; // skipping the island itself
+            return 1;
+        }
+    };
+
+
+    /**
+     * Writes the islands that send migrants to {@code island} into {@code sources} (which has room for
+     * {@code islands - 1} entries) and returns how many there are. Needs at least two islands.
+     */
+    public abstract int sources(int island, int islands, Rng random, int[] sources);
+}
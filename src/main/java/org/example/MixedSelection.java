@@ -0,0 +1,45 @@
+package org.example;
+
+
+/**
+ * Picks every parent with one of two schemes, each with a 50% chance.
+ */
+public class MixedSelection implements Selection {
+
+    private final Selection first;
+    private final Selection second;
+
+
+    public MixedSelection(Selection first, Selection second) {
+        this.first = first;
+        this.second = second;
+    }
+
+
+    @Override
+    public void prepare(double[] routeDistances, Rng random) {
+        first.prepare(routeDistances, random);
+        second.prepare(routeDistances, random);
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, Rng random) {
+        return random.nextDouble() > 0.5 ? first.select(routeDistances, random) : second.select(routeDistances, random);
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, int draw, Rng random) {
+        return random.nextDouble() > 0.5 ? first.select(routeDistances, draw, random)
+                : second.select(routeDistances, draw, random);
+    }
+
+
+    @Override
+    public Selection forWorker() {
+        Selection firstCopy = first.forWorker();
+        Selection secondCopy = second.forWorker();
+        return firstCopy == first && secondCopy == second ? this : new MixedSelection(firstCopy, secondCopy);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example;
+
+
+/**
+ * A mutation operator that changes a route in place and reports how much its length changed.
+ * <p>
+ * Routes are slices of flat population buffers (see {@link GeneticAlgorithm}). Because a move only replaces
+ * a few edges, implementations compute the length difference from those edges alone, so the caller can keep
+ * the cached route distance up to date without re-evaluating the whole route.
+ */
+public interface Mutation {
+
+    /**
+     * Mutates {@code routes[offset, offset + numberOfCities)} with the given per-city probability.
+     *
+     * @return new route length minus old route length (0 if nothing changed)
+     */
+    double mutate(int[] routes, int offset, int numberOfCities, double mutationRate,
+                  Rng random, DistanceMatrix distanceMatrix);
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+
+/**
+ * The mutation operators a run can be configured with.
+ */
+public enum MutationType {
+
+    SWAP { // swapping two random cities, the operator the algorithm always used
+        @Override
+        public Mutation create() {
+            return new SwapMutation();
+        }
+    },
+    INVERSION { // reversing the part of the route between two random positions
+        @Override
+        public Mutation create() {
+            return new InversionMutation();
+        }
+    };
+
+
+    /**
+     * Creates a new operator instance for one worker.
+     */
+    public abstract Mutation create();
+}
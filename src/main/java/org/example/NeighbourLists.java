@@ -0,0 +1,95 @@
+package org.example;
+
+
+/**
+ * The k nearest neighbours of every city, sorted from nearest to farthest, stored in one flat array.
+ * <p>
+ * Local search only considers edges to these candidates, which keeps a move scan at O(k) per city
+ * instead of O(N). The lists are read-only once built and can be shared by all threads.
+ * <p>
+ * With coordinates the lists come from a {@link KdTree} in O(N log N); only explicit matrices need the
+ * O(N^2) scan over all pairs, and those are limited to FLOAT_MATRIX_LIMIT cities anyway.
+ */
+public final class NeighbourLists {
+
+    private final int k; // neighbours per city
+    private final int[] neighbours; // neighbours[c * k + r] is the r-th nearest neighbour of city c
+
+
+    private NeighbourLists(int k, int[] neighbours) {
+        this.k = k;
+        this.neighbours = neighbours;
+    }
+
+
+    public static NeighbourLists build(DistanceMatrix distanceMatrix, int k) {
+        int size = distanceMatrix.size();
+        k = Math.min(k, size - 1);
+        int[] neighbours = new int[Math.multiplyExact(size, k)];
+        if (distanceMatrix.hasCoordinates()) {
+            buildFromTree(distanceMatrix, k, neighbours);
+        } else {
+            buildByScan(distanceMatrix, k, neighbours);
+        }
+        return new NeighbourLists(k, neighbours);
+    }
+
+
+    private static void buildFromTree(DistanceMatrix distanceMatrix, int k, int[] neighbours) {
+        // The tree ranks by straight-line distance; the rounding metrics can reorder near ties, so every list
+        // is re-sorted by the real distance (for GEO the tree's ranking is an approximation in the first place)
+        KdTree tree = new KdTree(distanceMatrix.xs(), distanceMatrix.ys(), k);
+        int[] found = new int[k];
+        double[] distances = new double[k];
+        for (int city = 0; city < distanceMatrix.size(); city++) {
+            int count = tree.nearest(city, k, found);
+            int base = city * k;
+            for (int i = 0; i < count; i++) { // insertion sort, the lists being short and nearly sorted
+                int other = found[i];
+                double d = distanceMatrix.distance(city, other);
+                int j = i;
+                while (j > 0 && distances[j - 1] > d) {
+                    distances[j] = distances[j - 1];
+                    neighbours[base + j] = neighbours[base + j - 1];
+                    j--;
+                }
+                distances[j] = d;
+                neighbours[base + j] = other;
+            }
+        }
+    }
+
+
+    private static void buildByScan(DistanceMatrix distanceMatrix, int k, int[] neighbours) {
+        // Brute force: for every city keep the k nearest other cities seen so far in a small sorted window
+        int size = distanceMatrix.size();
+        double[] nearest = new double[k]; // distances belonging to the current window
+        for (int city = 0; city < size; city++) {
+            int base = city * k;
+            int count = 0;
+            for (int other = 0; other < size; other++) {
+                if (other == city) continue;
+                double d = distanceMatrix.distance(city, other);
+                if (count == k && d >= nearest[k - 1]) continue;
+                int j = count < k ? count++ : k - 1;
+                while (j > 0 && nearest[j - 1] > d) { // insertion into the sorted window
+                    nearest[j] = nearest[j - 1];
+                    neighbours[base + j] = neighbours[base + j - 1];
+                    j--;
+                }
+                nearest[j] = d;
+                neighbours[base + j] = other;
+            }
+        }
+    }
+
+
+    public int k() {
+        return k;
+    }
+
+
+    public int get(int city, int rank) { // the rank-th nearest neighbour of city, rank 0 being the nearest
+        return neighbours[city * k + rank];
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+import java.util.Arrays;
+
+
+/**
+ * Order crossover (OX) in linear time.
+ * <p>
+ * The child gets a random segment of parent1 at the same positions; the remaining positions are filled from
+ * left to right with the missing cities in the order they appear in parent2. A bitset remembers which cities
+ * the child already has and a fill cursor remembers the next empty position, so no city or position is ever
+ * searched for.
+ */
+public class OrderCrossover implements Crossover {
+
+    private final long[] visited; // bit c is set once city c is in the child
+
+
+    public OrderCrossover(int numberOfCities) {
+        visited = new long[(numberOfCities + 63) >>> 6];
+    }
+
+
+    @Override
+    public void crossover(int[] parents, int parent1, int parent2, int[] children, int child,
+                          int numberOfCities, Rng random) {
+        // Generating random start and end positions for crossover
+        int startPos = random.nextInt(numberOfCities);
+        int endPos = random.nextInt(numberOfCities);
+        if (startPos > endPos) { // Ensuring startPos is less than endPos
+            int tempPos = startPos;
+            startPos = endPos;
+            endPos = tempPos;
+        }
+        Arrays.fill(visited, 0L);
+        // Copying the segment between startPos and endPos from parent1 to the child and marking its cities:
+        for (int i = startPos; i < endPos; i++) {
+            int city = parents[parent1 + i];
+            children[child + i] = city;
+            visited[city >>> 6] |= 1L << city;
+        }
+        // Inserting missing cities from parent2 into the empty positions of the child:
+        int fill = 0; // next empty position of the child
+        for (int i = 0; i < numberOfCities; i++) {
+            int city = parents[parent2 + i];
+            if ((visited[city >>> 6] & (1L << city)) != 0) continue; // the child already has this city
+            if (fill == startPos) fill = endPos; // jumping over the copied segment
+            children[child + fill++] = city;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+
+/**
+ * Runs many configurations of the solver, each with several seeds, concurrently in one JVM.
+ * <p>
+ * The configurations are the grid spanned by the {@link #vary varied} parameters on top of a base
+ * configuration, or a random sample of that grid. Every run is single-threaded and the runs share one
+ * fixed-size thread pool, so the machine is saturated without oversubscribing it; all runs read the same
+ * {@link DistanceMatrix}. Every configuration is run with the same seeds, so differences between
+ * configurations are not blurred by different random streams.
+ * <p>
+ * The runs of a configuration are summarised by their best, median, mean and worst distance and, if a target
+ * distance is set, by how often and how quickly they reached it.
+ */
+public class ParameterSweep {
+
+    private final DistanceMatrix distanceMatrix;
+    private final SolverConfig baseConfig;
+    private final List<Dimension<?>> dimensions = new ArrayList<>();
+    private int seedsPerConfiguration = 5;
+    private long seed = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private double targetDistance = Double.NaN;
+    private int sampleSize = -1; // -1 runs the full grid
+
+
+    public ParameterSweep(DistanceMatrix distanceMatrix, SolverConfig baseConfig) {
+        this.distanceMatrix = distanceMatrix;
+        this.baseConfig = baseConfig;
+    }
+
+
+    /**
+     * Adds a parameter to sweep: {@code name} (used as CSV column) takes every value of {@code values},
+     * applied to the configuration builder with {@code setter}, e.g.
+     * {@code vary("populationSize", List.of(40, 80, 160), SolverConfig.Builder::populationSize)}.
+     */
+    public <T> ParameterSweep vary(String name, List<T> values,
+                                   BiFunction<SolverConfig.Builder, T, SolverConfig.Builder> setter) {
+        if (values.isEmpty()) throw new IllegalArgumentException("No values for " + name);
+        dimensions.add(new Dimension<>(name, List.copyOf(values), setter));
+        return this;
+    }
+
+
+    public ParameterSweep seedsPerConfiguration(int seedsPerConfiguration) {
+        if (seedsPerConfiguration < 1) throw new IllegalArgumentException("seedsPerConfiguration must be positive");
+        this.seedsPerConfiguration = seedsPerConfiguration;
+        return this;
+    }
+
+
+    public ParameterSweep seed(long seed) { // master seed the run seeds and the random sample are drawn from
+        this.seed = seed;
+        return this;
+    }
+
+
+    public ParameterSweep threads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        this.threads = threads;
+        return this;
+    }
+
+
+    public ParameterSweep targetDistance(double targetDistance) { // for the time-to-target statistics
+        this.targetDistance = targetDistance;
+        return this;
+    }
+
+
+    public ParameterSweep randomSample(int sampleSize) { // running only sampleSize random grid points
+        if (sampleSize < 1) throw new IllegalArgumentException("sampleSize must be positive");
+        this.sampleSize = sampleSize;
+        return this;
+    }
+
+
+    public List<Summary> run() {
+        return run(result -> {
+        });
+    }
+
+
+    /**
+     * Runs the sweep and returns one summary per configuration, in grid order. {@code progress} is called
+     * (from the pool threads) whenever a run finishes.
+     */
+    public List<Summary> run(Consumer<RunResult> progress) {
+        Rng random = new Rng(seed);
+        long[] seeds = new long[seedsPerConfiguration];
+        for (int s = 0; s < seeds.length; s++) seeds[s] = random.nextLong();
+        long[] points = gridPoints(random);
+        List<SolverConfig> configs = new ArrayList<>();
+        List<List<String>> parameterValues = new ArrayList<>();
+        for (long point : points) {
+            SolverConfig.Builder builder = baseConfig.toBuilder().threads(1); // parallelism comes from the runs
+            List<String> values = new ArrayList<>();
+            for (Dimension<?> dimension : dimensions) {
+                int index = (int) (point % dimension.values.size());
+                point /= dimension.values.size();
+                builder = dimension.apply(builder, index);
+                values.add(String.valueOf(dimension.values.get(index)));
+            }
+            configs.add(builder.build()); // invalid combinations fail here, before anything runs
+            parameterValues.add(values);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<RunResult>> futures = new ArrayList<>();
+            for (int c = 0; c < configs.size(); c++) {
+                for (long runSeed : seeds) {
+                    int configIndex = c;
+                    SolverConfig config = configs.get(c).toBuilder().seed(runSeed).build();
+                    futures.add(pool.submit(() -> {
+                        RunResult result = runOnce(configIndex, config);
+                        progress.accept(result);
+                        return result;
+                    }));
+                }
+            }
+            RunResult[] results = new RunResult[futures.size()];
+            for (int i = 0; i < results.length; i++) results[i] = futures.get(i).get();
+            List<Summary> summaries = new ArrayList<>();
+            for (int c = 0; c < configs.size(); c++) {
+                RunResult[] runs = Arrays.copyOfRange(results, c * seeds.length, (c + 1) * seeds.length);
+                summaries.add(summarise(configs.get(c), parameterValues.get(c), runs));
+            }
+            return summaries;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the sweep", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Run failed", e.getCause());
+        } finally {
+            pool.shutdownNow(); // cancelling whatever is left after a failure
+        }
+    }
+
+
+    private long[] gridPoints(Rng random) {
+        // Grid points are numbered in mixed radix, the first dimension varying fastest
+        long gridSize = 1;
+        for (Dimension<?> dimension : dimensions) gridSize = Math.multiplyExact(gridSize, dimension.values.size());
+        if (sampleSize < 0 || sampleSize >= gridSize) {
+            if (gridSize > Integer.MAX_VALUE) throw new IllegalArgumentException("Grid too large, use randomSample");
+            long[] points = new long[(int) gridSize];
+            for (int i = 0; i < points.length; i++) points[i] = i;
+            return points;
+        }
+        Set<Long> chosen = new HashSet<>();
+        while (chosen.size() < sampleSize) { // distinct points; the sample is small compared to the grid
+            chosen.add(Math.floorMod(random.nextLong(), gridSize));
+        }
+        return chosen.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+
+    private RunResult runOnce(int configIndex, SolverConfig config) {
+        TspSolver solver = new TspSolver(distanceMatrix, config);
+        long startTime = System.nanoTime();
+        int[] generationToTarget = {-1};
+        long[] nanosToTarget = {-1};
+        if (!Double.isNaN(targetDistance)) {
+            solver.addListener((generation, currentBestDistance, bestDistance, bestRoute, genWithBestDistance) -> {
+                if (generationToTarget[0] < 0 && bestDistance <= targetDistance) {
+                    generationToTarget[0] = generation;
+                    nanosToTarget[0] = System.nanoTime() - startTime;
+                }
+            });
+        }
+        SolverResult result = solver.solve();
+        return new RunResult(configIndex, config.getSeed(), result.getBestDistance(), result.getGenerations(),
+                result.getElapsedNanos(), generationToTarget[0], nanosToTarget[0]);
+    }
+
+
+    private static Summary summarise(SolverConfig config, List<String> parameterValues, RunResult[] runs) {
+        double[] distances = new double[runs.length];
+        double[] millis = new double[runs.length];
+        double[] targetGenerations = new double[runs.length];
+        double[] targetMillis = new double[runs.length];
+        int hits = 0;
+        double sum = 0;
+        for (int i = 0; i < runs.length; i++) {
+            distances[i] = runs[i].bestDistance();
+            millis[i] = runs[i].elapsedNanos() / 1e6;
+            sum += distances[i];
+            if (runs[i].generationToTarget() >= 0) {
+                targetGenerations[hits] = runs[i].generationToTarget();
+                targetMillis[hits] = runs[i].nanosToTarget() / 1e6;
+                hits++;
+            }
+        }
+        Arrays.sort(distances);
+        return new Summary(config, parameterValues, runs.length, distances[0], median(distances, runs.length),
+                sum / runs.length, distances[runs.length - 1], median(millis, runs.length), hits,
+                median(targetGenerations, hits), median(targetMillis, hits));
+    }
+
+
+    private static double median(double[] values, int count) { // of values[0, count); NaN if count is 0
+        if (count == 0) return Double.NaN;
+        double[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        return count % 2 == 1 ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2;
+    }
+
+
+    /**
+     * Writes one line per summary: the parameter values (under the names passed to {@link #vary}), followed
+     * by the statistics.
+     */
+    public void writeCsv(Path file, List<Summary> summaries) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Dimension<?> dimension : dimensions) writer.write(dimension.name + ",");
+            writer.write("runs,best,median,mean,worst,median_ms,target_hits,median_generations_to_target,"
+                    + "median_ms_to_target\n");
+            for (Summary summary : summaries) {
+                for (String value : summary.parameterValues()) writer.write(value + ",");
+                writer.write(summary.runs() + "," + summary.best() + "," + summary.median() + "," + summary.mean()
+                        + "," + summary.worst() + "," + summary.medianMillis() + "," + summary.targetHits() + ","
+                        + summary.medianGenerationsToTarget() + "," + summary.medianMillisToTarget() + "\n");
+            }
+        }
+    }
+
+
+    /**
+     * Outcome of one run; generationToTarget and nanosToTarget are -1 if the target was not reached (or not
+     * set).
+     */
+    public record RunResult(int configIndex, long seed, double bestDistance, int generations, long elapsedNanos,
+                            int generationToTarget, long nanosToTarget) {
+    }
+
+
+    /**
+     * Statistics over the runs of one configuration. The to-target medians only cover the runs that reached
+     * the target and are NaN if none did.
+     */
+    public record Summary(SolverConfig config, List<String> parameterValues, int runs, double best, double median,
+                          double mean, double worst, double medianMillis, int targetHits,
+                          double medianGenerationsToTarget, double medianMillisToTarget) {
+    }
+
+
+    private record Dimension<T>(String name, List<T> values,
+                                BiFunction<SolverConfig.Builder, T, SolverConfig.Builder> setter) {
+
+        SolverConfig.Builder apply(SolverConfig.Builder builder, int index) {
+            return setter.apply(builder, values.get(index));
+        }
+    }
+}
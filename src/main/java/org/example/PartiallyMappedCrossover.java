@@ -0,0 +1,47 @@
+package org.example;
+
+
+/**
+ * Partially mapped crossover (PMX) in linear time.
+ * <p>
+ * The child gets a random segment of parent1 at the same positions and every other position from parent2.
+ * When parent2's city at such a position is already in the segment, the mapping segment-of-parent1 to
+ * segment-of-parent2 is followed until a city outside the segment turns up. Each mapping step moves to a
+ * different segment position, so the total work stays linear.
+ */
+public class PartiallyMappedCrossover implements Crossover {
+
+    private final int[] positionInParent1; // positionInParent1[c] is the position of city c in parent1
+
+
+    public PartiallyMappedCrossover(int numberOfCities) {
+        positionInParent1 = new int[numberOfCities];
+    }
+
+
+    @Override
+    public void crossover(int[] parents, int parent1, int parent2, int[] children, int child,
+                          int numberOfCities, Rng random) {
+        int startPos = random.nextInt(numberOfCities);
+        int endPos = random.nextInt(numberOfCities);
+        if (startPos > endPos) { // Ensuring startPos is less than endPos
+            int tempPos = startPos;
+            startPos = endPos;
+            endPos = tempPos;
+        }
+        for (int i = 0; i < numberOfCities; i++) positionInParent1[parents[parent1 + i]] = i;
+        // Copying the segment between startPos and endPos from parent1 to the child:
+        System.arraycopy(parents, parent1 + startPos, children, child + startPos, endPos - startPos);
+        // Taking every other position from parent2, resolving conflicts through the mapping:
+        for (int i = 0; i < numberOfCities; i++) {
+            if (i >= startPos && i < endPos) continue; // the copied segment is already filled
+            int city = parents[parent2 + i];
+            int position = positionInParent1[city];
+            while (position >= startPos && position < endPos) { // city is already in the child's segment
+                city = parents[parent2 + position]; // so take the city parent2 has in its place instead
+                position = positionInParent1[city];
+            }
+            children[child + i] = city;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/**
+ * History of the best distance of every generation in constant memory.
+ * <p>
+ * The most recent generations are kept at full resolution in a primitive ring buffer. Generations that drop
+ * out of it are summarised in a fixed number of buckets with the min, max and mean of the generations they
+ * cover. All buckets cover the same number of generations; once they are all used, neighbouring pairs are
+ * merged, which halves the resolution of the old history and doubles the width of every bucket.
+ * <p>
+ * Optionally every generation is also streamed to a CSV file ({@code generation,best_distance}), so the full
+ * history is available afterwards without being held in memory.
+ */
+public final class ProgressRecorder implements AutoCloseable {
+
+    public static final int DEFAULT_RECENT_CAPACITY = 4096;
+    public static final int DEFAULT_BUCKET_COUNT = 1024;
+    private static final String FILE_HEADER = "generation,best_distance\n";
+
+    private final double[] recent; // ring buffer of the latest generations, oldest at recentStart
+    private int recentStart;
+    private int recentCount;
+    private final double[] bucketMin;
+    private final double[] bucketMax;
+    private final double[] bucketSum;
+    private final int[] bucketSize; // generations in every bucket; only the last used one may be incomplete
+    private int bucketWidth = 1; // generations per complete bucket
+    private int bucketsUsed;
+    private int generations; // generations recorded so far
+    private double last = Double.NaN;
+
+    private FileChannel fileChannel; // null unless streaming
+    private Writer fileWriter;
+    private final StringBuilder line = new StringBuilder(); // reused for every streamed line
+    private long streamedBytes; // bytes of the file that belong to the recorded generations
+
+
+    public ProgressRecorder() {
+        this(DEFAULT_RECENT_CAPACITY, DEFAULT_BUCKET_COUNT);
+    }
+
+
+    public ProgressRecorder(int recentCapacity, int bucketCount) {
+        if (recentCapacity < 1) throw new IllegalArgumentException("recentCapacity must be positive");
+        if (bucketCount < 2 || bucketCount % 2 != 0) {
+            throw new IllegalArgumentException("bucketCount must be even and at least 2");
+        }
+        this.recent = new double[recentCapacity];
+        this.bucketMin = new double[bucketCount];
+        this.bucketMax = new double[bucketCount];
+        this.bucketSum = new double[bucketCount];
+        this.bucketSize = new int[bucketCount];
+    }
+
+
+    /**
+     * Streams every generation recorded from now on to {@code file}. With {@code append} the file is cut back
+     * to the end of the generations already recorded (as restored from a checkpoint) and continued, otherwise
+     * it is started afresh.
+     */
+    public void streamTo(Path file, boolean append) throws IOException {
+        close();
+        fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (append && streamedBytes > 0 && fileChannel.size() >= streamedBytes) {
+            fileChannel.truncate(streamedBytes); // dropping what was written after the checkpoint
+            fileChannel.position(streamedBytes);
+            fileWriter = Channels.newWriter(fileChannel, StandardCharsets.US_ASCII);
+        } else {
+            fileChannel.truncate(0);
+            fileWriter = Channels.newWriter(fileChannel, StandardCharsets.US_ASCII);
+            fileWriter.write(FILE_HEADER);
+            streamedBytes = FILE_HEADER.length();
+            for (int i = 0; i < recentCount; i++) { // whatever is still known at full resolution
+                writeLine(generations - recentCount + i, recent[(recentStart + i) % recent.length]);
+            }
+        }
+    }
+
+
+    public void record(double bestDistance) {
+        if (recentCount == recent.length) { // the oldest recent generation moves into the buckets
+            addToBuckets(generations - recentCount, recent[recentStart]);
+            recent[recentStart] = bestDistance;
+            recentStart = (recentStart + 1) % recent.length;
+        } else {
+            recent[(recentStart + recentCount++) % recent.length] = bestDistance;
+        }
+        if (fileWriter != null) writeLine(generations, bestDistance);
+        generations++;
+        last = bestDistance;
+    }
+
+
+    private void addToBuckets(int generation, double value) {
+        int bucket = generation / bucketWidth;
+        if (bucket == bucketMin.length) { // all buckets are used: merging pairs to halve the resolution
+            for (int i = 0; i < bucketMin.length / 2; i++) {
+                int a = 2 * i;
+                int b = 2 * i + 1;
+                bucketMin[i] = Math.min(bucketMin[a], bucketMin[b]);
+                bucketMax[i] = Math.max(bucketMax[a], bucketMax[b]);
+                bucketSum[i] = bucketSum[a] + bucketSum[b];
+                bucketSize[i] = bucketSize[a] + bucketSize[b];
+            }
+            bucketsUsed = bucketMin.length / 2;
+            bucketWidth *= 2;
+            bucket = generation / bucketWidth;
+        }
+        if (bucket == bucketsUsed) { // starting a new bucket
+            bucketMin[bucket] = value;
+            bucketMax[bucket] = value;
+            bucketSum[bucket] = value;
+            bucketSize[bucket] = 1;
+            bucketsUsed++;
+        } else {
+            bucketMin[bucket] = Math.min(bucketMin[bucket], value);
+            bucketMax[bucket] = Math.max(bucketMax[bucket], value);
+            bucketSum[bucket] += value;
+            bucketSize[bucket]++;
+        }
+    }
+
+
+    private void writeLine(int generation, double value) {
+        line.setLength(0);
+        line.append(generation).append(',').append(value).append('\n');
+        try {
+            fileWriter.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to stream the progress history", e);
+        }
+        streamedBytes += line.length(); // ASCII, so one byte per char
+    }
+
+
+    public int getGenerations() { // number of generations recorded
+        return generations;
+    }
+
+
+    public double getLast() { // best distance of the latest generation, NaN before the first one
+        return last;
+    }
+
+
+    /**
+     * The history as chart data: one point per bucket, at the middle of the generations it covers, followed
+     * by one point per recent generation (whose min, max and mean are all the same).
+     */
+    public Series getSeries() {
+        int points = bucketsUsed + recentCount;
+        double[] x = new double[points];
+        double[] min = new double[points];
+        double[] max = new double[points];
+        double[] mean = new double[points];
+        for (int b = 0; b < bucketsUsed; b++) {
+            x[b] = (double) b * bucketWidth + (bucketSize[b] - 1) / 2.0;
+            min[b] = bucketMin[b];
+            max[b] = bucketMax[b];
+            mean[b] = bucketSum[b] / bucketSize[b];
+        }
+        int firstRecent = generations - recentCount;
+        for (int i = 0; i < recentCount; i++) {
+            int p = bucketsUsed + i;
+            x[p] = firstRecent + i;
+            min[p] = max[p] = mean[p] = recent[(recentStart + i) % recent.length];
+        }
+        return new Series(x, min, max, mean, bucketWidth > 1);
+    }
+
+
+    public void flush() { // pushing the streamed lines to the file, e.g. before a checkpoint
+        if (fileWriter == null) return;
+        try {
+            fileWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to stream the progress history", e);
+        }
+    }
+
+
+    int stateBytes() { // size of what saveState() writes
+        return 5 * Integer.BYTES + Double.BYTES + Long.BYTES + recentCount * Double.BYTES
+                + bucketsUsed * (3 * Double.BYTES + Integer.BYTES);
+    }
+
+
+    void saveState(ByteBuffer buffer) { // the complete history, for checkpoints; flush() first when streaming
+        buffer.putInt(generations).putDouble(last).putLong(streamedBytes);
+        buffer.putInt(recentCount);
+        for (int i = 0; i < recentCount; i++) buffer.putDouble(recent[(recentStart + i) % recent.length]);
+        buffer.putInt(bucketWidth).putInt(bucketsUsed).putInt(bucketMin.length);
+        for (int b = 0; b < bucketsUsed; b++) {
+            buffer.putDouble(bucketMin[b]).putDouble(bucketMax[b]).putDouble(bucketSum[b]).putInt(bucketSize[b]);
+        }
+    }
+
+
+    void restoreState(ByteBuffer buffer) {
+        generations = buffer.getInt();
+        last = buffer.getDouble();
+        streamedBytes = buffer.getLong();
+        int savedRecentCount = buffer.getInt();
+        double[] savedRecent = new double[savedRecentCount];
+        for (int i = 0; i < savedRecentCount; i++) savedRecent[i] = buffer.getDouble();
+        int savedBucketWidth = buffer.getInt();
+        int savedBucketsUsed = buffer.getInt();
+        int savedBucketCount = buffer.getInt();
+        if (savedRecentCount > recent.length || savedBucketCount != bucketMin.length) {
+            throw new IllegalArgumentException("The saved history was recorded with a different capacity");
+        }
+        recentStart = 0;
+        recentCount = savedRecentCount;
+        System.arraycopy(savedRecent, 0, recent, 0, savedRecentCount);
+        bucketWidth = savedBucketWidth;
+        bucketsUsed = savedBucketsUsed;
+        for (int b = 0; b < bucketsUsed; b++) {
+            bucketMin[b] = buffer.getDouble();
+            bucketMax[b] = buffer.getDouble();
+            bucketSum[b] = buffer.getDouble();
+            bucketSize[b] = buffer.getInt();
+        }
+        Arrays.fill(bucketSize, bucketsUsed, bucketSize.length, 0);
+    }
+
+
+    @Override
+    public void close() { // stops streaming; the recorded history stays available
+        if (fileChannel == null) return;
+        try {
+            fileWriter.close(); // flushes and closes the channel as well
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to stream the progress history", e);
+        } finally {
+            fileChannel = null;
+            fileWriter = null;
+        }
+    }
+
+
+    /**
+     * Chart data of a {@link ProgressRecorder}: the generation every point stands for and the min, max and
+     * mean best distance of the generations it covers. {@code downsampled} tells whether any point covers
+     * more than one generation.
+     */
+    public record Series(double[] generations, double[] min, double[] max, double[] mean, boolean downsampled) {
+
+        public int size() {
+            return generations.length;
+        }
+    }
+}
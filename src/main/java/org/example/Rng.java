@@ -0,0 +1,90 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Small splittable pseudo-random generator (the SplitMix64 algorithm, same as java.util.SplittableRandom).
+ * <p>
+ * Every worker thread of the genetic algorithm owns one instance, split off a single seeded master generator,
+ * so a run is reproducible for a given seed and thread count without threads ever sharing a generator.
+ * Instances are not thread-safe.
+ */
+public final class Rng {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53; // 1.0 / (1L << 53)
+
+    private long seed;
+    private long gamma; // odd increment added to the seed on every step
+
+
+    public Rng(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+
+    private Rng(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+
+    public Rng split() {
+        // Creating a new generator whose stream is statistically independent of this one
+        return new Rng(mix64(nextSeed()), mixGamma(nextSeed()));
+    }
+
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+
+    public int nextInt(int bound) { // uniformly distributed int between 0 (inclusive) and bound (exclusive)
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive: " + bound);
+        int r = (int) (nextLong() >>> 32);
+        int m = bound - 1;
+        if ((bound & m) == 0) return r & m; // bound is a power of two
+        // Rejecting values from the incomplete last range to keep the distribution uniform:
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = (int) (nextLong() >>> 33)) ;
+        return r;
+    }
+
+
+    public double nextDouble() { // uniformly distributed double between 0.0 (inclusive) and 1.0 (exclusive)
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+
+    void save(ByteBuffer buffer) { // writing the complete state, for checkpoints
+        buffer.putLong(seed).putLong(gamma);
+    }
+
+
+    void restore(ByteBuffer buffer) { // continuing exactly where the saved generator stopped
+        seed = buffer.getLong();
+        gamma = buffer.getLong();
+    }
+
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L; // the gamma has to be odd
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example;
+
+
+/**
+ * Fitness proportionate ("roulette wheel") selection with an O(log n) pick.
+ * <p>
+ * Every individual gets a slice of the wheel proportional to the inverse of its route distance, so shorter
+ * routes are more likely to be picked. The cumulative table is built in a single pass and left unnormalised;
+ * a pick draws a value below the total and finds its slice by binary search. A draw can never fall past the
+ * last slice, whatever the rounding, so a parent is always found.
+ */
+public class RouletteSelection implements Selection {
+
+    private final double[] cumulativeWeights; // cumulativeWeights[i] is the sum of the weights of individuals 0..i
+
+
+    public RouletteSelection(int populationSize) {
+        cumulativeWeights = new double[populationSize];
+    }
+
+
+    @Override
+    public void prepare(double[] routeDistances, Rng random) {
+        double total = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            total += 1 / routeDistances[i];
+            cumulativeWeights[i] = total;
+        }
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, Rng random) {
+        double selectedValue = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        // Finding the first individual whose cumulative weight exceeds the selected value:
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] > selectedValue) high = middle;
+            else low = middle + 1;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example;
+
+import org.knowm.xchart.SwingWrapper;
+import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYSeries;
+import org.knowm.xchart.style.lines.SeriesLines;
+import org.knowm.xchart.style.markers.SeriesMarkers;
+
+import java.awt.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Live route chart for a {@link TspSolver} run.
+ * <p>
+ * The solver thread only stores a snapshot of the best route every {@code everyNGenerations} generations;
+ * a separate render thread picks up the latest snapshot at a fixed frame rate, redraws the chart and repaints
+ * the window. Snapshots that arrive faster than the frame rate simply replace each other, so rendering never
+ * slows the solver down.
+ */
+public class RouteChartListener implements SolverListener, AutoCloseable {
+
+    private final XYChart chart;
+    private final SwingWrapper<XYChart> swingWrapper;
+    private final double[] xs;
+    private final double[] ys;
+    private final String settings; // run parameters shown in the title
+    private final int everyNGenerations;
+    private final ScheduledExecutorService renderThread;
+    private volatile Frame latestFrame; // written by the solver thread, read by the render thread
+    private Frame renderedFrame; // only touched by the render thread (and by onFinish once it has stopped)
+    private volatile SolverMetrics metrics; // receives the render times, if set
+
+
+    public RouteChartListener(double[] xs, double[] ys, int width, int height, String settings,
+                              int everyNGenerations, double framesPerSecond) {
+        if (everyNGenerations < 1) throw new IllegalArgumentException("everyNGenerations must be positive");
+        if (framesPerSecond <= 0) throw new IllegalArgumentException("framesPerSecond must be positive");
+        this.xs = xs;
+        this.ys = ys;
+        this.settings = settings;
+        this.everyNGenerations = everyNGenerations;
+        // Generating and displaying initial route chart:
+        chart = createChart(xs, ys, width, height);
+        swingWrapper = new SwingWrapper<>(chart);
+        swingWrapper.displayChart();
+
+        renderThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "route-chart-renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMicros = Math.max(1, (long) (1_000_000 / framesPerSecond));
+        renderThread.scheduleAtFixedRate(this::renderLatestFrame, 0, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+
+    public XYChart getChart() {
+        return chart;
+    }
+
+
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+
+    @Override
+    public void onGeneration(int generation, double currentBestDistance, double bestDistance,
+                             int[] bestRoute, int genWithBestDistance) {
+        if (generation % everyNGenerations != 0) return;
+        latestFrame = new Frame(bestRoute.clone(), bestDistance, generation, genWithBestDistance);
+    }
+
+
+    @Override
+    public void onFinish(SolverResult result) {
+        // Stopping the render thread and drawing the final state, so the chart shows the best route of the run:
+        close();
+        try {
+            renderThread.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        latestFrame = new Frame(result.getBestRoute(), result.getBestDistance(),
+                result.getGenerations() - 1, result.getGenWithBestDistance());
+        renderLatestFrame();
+    }
+
+
+    private void renderLatestFrame() {
+        Frame frame = latestFrame;
+        if (frame == null || frame == renderedFrame) return; // nothing new to draw
+        renderedFrame = frame;
+        long start = System.nanoTime();
+        updatePlot(frame);
+        swingWrapper.repaintChart();
+        SolverMetrics metrics = this.metrics;
+        if (metrics != null) metrics.addRenderNanos(System.nanoTime() - start);
+    }
+
+
+    private void updatePlot(Frame frame) {
+        plotRoute(chart, xs, ys, frame.bestRoute, frame.bestDistance, frame.generation, frame.genWithBestDistance,
+                settings);
+    }
+
+
+    static XYChart createChart(double[] xs, double[] ys, int width, int height) { // a route chart with the cities
+        XYChart chart = new XYChart(width, height);
+        XYSeries citiesSeries = chart.addSeries("Cities", xs, ys);
+        citiesSeries.setMarker(SeriesMarkers.CIRCLE);
+        citiesSeries.setLineStyle(SeriesLines.NONE);
+        return chart;
+    }
+
+
+    static void plotRoute(XYChart chart, double[] xs, double[] ys, int[] bestRoute, double bestDistance,
+                          int generation, int genWithBestDistance, String settings) {
+        // Updating the title of the chart to display the current best distance & other info
+        chart.setTitle("BD: " + bestDistance + // Best known distance
+                "   BDG: " + genWithBestDistance + // Best known distance generation
+                "   CG: " + generation + // Current generation
+                "   NC: " + xs.length + // number of cities
+                "   " + settings);
+        // Creating arrays to store data for X and Y axes (city coordinates):
+        double[] xData = new double[bestRoute.length];
+        double[] yData = new double[bestRoute.length];
+        // Populating the arrays with city coordinates from the best known route:
+        for (int i = 0; i < bestRoute.length; i++) {
+            xData[i] = xs[bestRoute[i]];
+            yData[i] = ys[bestRoute[i]];
+        }
+        // If the "Route" series doesn't exist yet, create it (happens for the first frame),
+        // otherwise update the series with the new data:
+        if (!chart.getSeriesMap().containsKey("Route")) {
+            chart.addSeries("Route", xData, yData).setLineColor(Color.blue);
+        } else {
+            chart.updateXYSeries("Route", xData, yData, null).setMarker(SeriesMarkers.NONE);
+        }
+    }
+
+
+    @Override
+    public void close() {
+        renderThread.shutdown();
+    }
+
+
+    private record Frame(int[] bestRoute, double bestDistance, int generation, int genWithBestDistance) {
+    }
+}
@@ -0,0 +1,43 @@
+package org.example;
+
+
+/**
+ * A parent selection scheme. Shorter routes are fitter.
+ * <p>
+ * {@link #prepare} is called once per generation, on a single thread, before any parent is selected; after
+ * that {@link #select} may be called from all workers at the same time, each with its own random generator
+ * and its own {@link #forWorker()} instance. Implementations never fail to return a parent.
+ */
+public interface Selection {
+
+    /**
+     * Builds whatever tables the scheme needs for the current population.
+     */
+    void prepare(double[] routeDistances, Rng random);
+
+
+    /**
+     * Returns the index of the selected individual.
+     */
+    int select(double[] routeDistances, Rng random);
+
+
+    /**
+     * Returns the index of the individual selected for draw number {@code draw} of this generation. Every draw
+     * of a generation has its own number (the breeding loop numbers the two parents of child slot {@code s}
+     * as {@code 2s} and {@code 2s + 1}), so schemes that hand out a prepared sample can give every draw its
+     * own entry. The others simply sample independently.
+     */
+    default int select(double[] routeDistances, int draw, Rng random) {
+        return select(routeDistances, random);
+    }
+
+
+    /**
+     * Returns the instance a worker selects with. Schemes that keep scratch arrays between picks hand every
+     * worker a copy of its own; the copies share the tables of this instance, so only this one is prepared.
+     */
+    default Selection forWorker() {
+        return this;
+    }
+}
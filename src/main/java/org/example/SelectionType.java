@@ -0,0 +1,46 @@
+package org.example;
+
+
+/**
+ * The parent selection schemes a run can be configured with.
+ */
+public enum SelectionType {
+
+    MIXED { // tournament or roulette with a 50% chance each, the scheme the algorithm always used
+        @Override
+        public Selection create(int populationSize, int tournamentSize) {
+            return new MixedSelection(new TournamentSelection(populationSize, tournamentSize),
+                    new RouletteSelection(populationSize));
+        }
+    },
+    ROULETTE { // fitness proportionate, binary search over the cumulative table
+        @Override
+        public Selection create(int populationSize, int tournamentSize) {
+            return new RouletteSelection(populationSize);
+        }
+    },
+    ALIAS { // fitness proportionate, Vose's alias method
+        @Override
+        public Selection create(int populationSize, int tournamentSize) {
+            return new AliasSelection(populationSize);
+        }
+    },
+    STOCHASTIC_UNIVERSAL { // fitness proportionate with evenly spaced pointers
+        @Override
+        public Selection create(int populationSize, int tournamentSize) {
+            return new StochasticUniversalSelection(populationSize);
+        }
+    },
+    TOURNAMENT { // best of tournamentSize random individuals
+        @Override
+        public Selection create(int populationSize, int tournamentSize) {
+            return new TournamentSelection(populationSize, tournamentSize);
+        }
+    };
+
+
+    /**
+     * Creates a new selection scheme for populations of the given size.
+     */
+    public abstract Selection create(int populationSize, int tournamentSize);
+}
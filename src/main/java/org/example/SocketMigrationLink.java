@@ -0,0 +1,228 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+
+/**
+ * Migration between {@link IslandModel}s running in separate JVMs on the same host, over loopback sockets.
+ * <p>
+ * Every process listens on its own port and sends its emigrants to the port of the next process, so several
+ * processes form a ring. Both directions are buffered by background threads that keep only the most recent
+ * few batches, so the evolution never waits for the network: {@link #send} queues a copy of the emigrants
+ * for the sender thread, and {@link #poll()} picks up what the receiving threads have read. Sending is best
+ * effort: when the next process is not reachable (yet), or stalls and lets the queue overflow, batches are
+ * dropped, and the connection is retried with the next one. Nothing a peer sends is trusted: routes must be
+ * permutations, batches are limited in size, and distances are computed locally, so a peer with another
+ * metric cannot pass off a route as shorter than it is.
+ * <p>
+ * Wire format per batch: number of cities, number of routes, then the cities of every route, all big-endian.
+ * Cities are sent as unsigned 16-bit values when there are at most 65536 of them, which halves the traffic;
+ * both ends know the number of cities, so they agree on the width.
+ */
+public final class SocketMigrationLink implements AutoCloseable {
+
+    private static final int MAX_PENDING_BATCHES = 4;
+    private static final int MAX_SHORT_CITIES = 1 << 16;
+    private static final int MAX_BATCH_ROUTES = 1024;
+    private static final int MAX_BATCH_CITIES = 1 << 24; // 64 MB of routes per batch at most
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final DistanceMatrix distanceMatrix; // for evaluating received routes
+    private final int numberOfCities;
+    private final boolean shortCities; // whether cities go over the wire as chars
+    private final int maxBatchRoutes; // routes per batch, in either direction
+    private final int nextPort;
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Batch> received = new ArrayBlockingQueue<>(MAX_PENDING_BATCHES);
+    private final BlockingQueue<int[]> outgoingBatches = new ArrayBlockingQueue<>(MAX_PENDING_BATCHES); // routes
+    // waiting for the sender thread, back to back
+    private Thread senderThread; // started by open()
+    private volatile Socket outgoing; // connection to the next process, opened lazily by the sender thread
+    private volatile boolean closed;
+
+
+    private SocketMigrationLink(int listenPort, int nextPort, DistanceMatrix distanceMatrix) throws IOException {
+        this.distanceMatrix = distanceMatrix;
+        this.numberOfCities = distanceMatrix.size();
+        this.shortCities = numberOfCities <= MAX_SHORT_CITIES;
+        this.maxBatchRoutes = Math.max(1, Math.min(MAX_BATCH_ROUTES, MAX_BATCH_CITIES / numberOfCities));
+        this.nextPort = nextPort;
+        this.serverSocket = new ServerSocket(listenPort, 50, InetAddress.getLoopbackAddress());
+    }
+
+
+    /**
+     * Opens a link that listens on {@code listenPort} (0 for any free port) and sends to {@code nextPort},
+     * for routes over the cities of {@code distanceMatrix}.
+     */
+    public static SocketMigrationLink open(int listenPort, int nextPort, DistanceMatrix distanceMatrix)
+            throws IOException {
+        SocketMigrationLink link = new SocketMigrationLink(listenPort, nextPort, distanceMatrix);
+        Thread acceptThread = new Thread(link::acceptConnections, "migration-accept-" + link.getLocalPort());
+        acceptThread.setDaemon(true);
+        link.senderThread = new Thread(link::sendBatches, "migration-sender-" + link.getLocalPort());
+        link.senderThread.setDaemon(true);
+        acceptThread.start(); // only once the link is fully constructed
+        link.senderThread.start();
+        return link;
+    }
+
+
+    public int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+
+    /**
+     * Queues {@code count} routes from {@code routes} (numberOfCities cities each, starting at individual
+     * {@code offset}) for the next process and returns at once; beyond the batch size limit only the first
+     * routes are sent. While the queue is full, the oldest batch in it is dropped.
+     */
+    public void send(int[] routes, int offset, int count) {
+        count = Math.min(count, maxBatchRoutes);
+        int[] batch = Arrays.copyOfRange(routes, offset * numberOfCities, (offset + count) * numberOfCities);
+        while (!outgoingBatches.offer(batch)) outgoingBatches.poll(); // keeping only the most recent batches
+    }
+
+
+    private void sendBatches() {
+        DataOutputStream out = null;
+        while (!closed) {
+            int[] batch;
+            try {
+                batch = outgoingBatches.take();
+            } catch (InterruptedException e) { // closed
+                return;
+            }
+            try {
+                if (out == null) {
+                    Socket socket = new Socket();
+                    outgoing = socket;
+                    if (closed) break; // close() may have missed the new socket
+                    socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), nextPort),
+                            CONNECT_TIMEOUT_MILLIS);
+                    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                }
+                // A stalled peer blocks this thread in a write until it reads again or the link is closed;
+                // meanwhile send() keeps replacing the queued batches
+                int count = batch.length / numberOfCities;
+                out.writeInt(numberOfCities);
+                out.writeInt(count);
+                for (int city : batch) {
+                    if (shortCities) out.writeChar(city);
+                    else out.writeInt(city);
+                }
+                out.flush();
+            } catch (IOException e) { // the next process is not there (any more); try again with the next batch
+                closeOutgoing();
+                out = null;
+            }
+        }
+        closeOutgoing();
+    }
+
+
+    /**
+     * Returns the oldest buffered batch of immigrants, or null if none has arrived.
+     */
+    public Batch poll() {
+        return received.poll();
+    }
+
+
+    private void acceptConnections() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread reader = new Thread(() -> readBatches(socket), "migration-reader-" + getLocalPort());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!closed) System.err.println("Warning: migration link stopped accepting: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+
+    private void readBatches(Socket socket) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (!closed) {
+                int cities = in.readInt();
+                int count = in.readInt();
+                if (cities != numberOfCities) {
+                    System.err.println("Warning: dropping migration connection with " + cities
+                            + " cities (expected " + numberOfCities + ")");
+                    return;
+                }
+                if (count < 0 || count > maxBatchRoutes) {
+                    System.err.println("Warning: dropping migration connection that sent a batch of " + count
+                            + " routes (at most " + maxBatchRoutes + ")");
+                    return;
+                }
+                int[] routes = new int[Math.multiplyExact(count, numberOfCities)];
+                double[] distances = new double[count];
+                boolean[] seen = new boolean[numberOfCities];
+                for (int k = 0; k < count; k++) {
+                    Arrays.fill(seen, false);
+                    for (int i = 0; i < numberOfCities; i++) {
+                        int city = shortCities ? in.readChar() : in.readInt();
+                        if (city < 0 || city >= numberOfCities || seen[city]) {
+                            System.err.println("Warning: dropping migration connection that sent an invalid route");
+                            return;
+                        }
+                        seen[city] = true;
+                        routes[k * numberOfCities + i] = city;
+                    }
+                    distances[k] = distanceMatrix.tourLength(routes, k * numberOfCities, numberOfCities);
+                }
+                Batch batch = new Batch(count, routes, distances);
+                while (!received.offer(batch)) received.poll(); // keeping only the most recent batches
+            }
+        } catch (EOFException | SocketException e) {
+            // the sending process went away
+        } catch (IOException e) {
+            if (!closed) System.err.println("Warning: migration connection failed: " + e.getMessage());
+        }
+    }
+
+
+    private void closeOutgoing() {
+        Socket socket = outgoing;
+        try {
+            if (socket != null) socket.close();
+        } catch (IOException ignored) {
+            // nothing left to do with a broken connection
+        }
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        senderThread.interrupt(); // waking the sender thread up if it waits for a batch...
+        closeOutgoing(); // ...or for the next process, in a connect or a write
+        serverSocket.close();
+    }
+
+
+    /**
+     * Routes received from another process: {@code count} routes of numberOfCities cities each, with their
+     * distances as evaluated by this process.
+     */
+    public record Batch(int count, int[] routes, double[] distances) {
+    }
+}
@@ -0,0 +1,299 @@
+package org.example;
+
+
+/**
+ * Immutable set of parameters for one {@link TspSolver} run. Create it with {@link #builder()}; every setting
+ * has the default the original animation used.
+ */
+public final class SolverConfig {
+
+    private final int populationSize;
+    private final int eliteSize;
+    private final double mutationRate;
+    private final int maxGenerations;
+    private final int maxGenerationsWithNoImprovement;
+    private final long seed;
+    private final int threads;
+    private final SelectionType selection;
+    private final int tournamentSize;
+    private final CrossoverType crossover;
+    private final MutationType mutation;
+    private final LocalSearchMode localSearch;
+    private final int neighbourCount;
+    private final InitialTourType initialTours;
+    private final double seededFraction;
+    private final boolean deduplicate;
+    private final boolean adaptive;
+
+
+    private SolverConfig(Builder builder) {
+        this.populationSize = builder.populationSize;
+        this.eliteSize = builder.eliteSize;
+        this.mutationRate = builder.mutationRate;
+        this.maxGenerations = builder.maxGenerations;
+        this.maxGenerationsWithNoImprovement = builder.maxGenerationsWithNoImprovement;
+        this.seed = builder.seed;
+        this.threads = builder.threads;
+        this.selection = builder.selection;
+        this.tournamentSize = builder.tournamentSize;
+        this.crossover = builder.crossover;
+        this.mutation = builder.mutation;
+        this.localSearch = builder.localSearch;
+        this.neighbourCount = builder.neighbourCount;
+        this.initialTours = builder.initialTours;
+        this.seededFraction = builder.seededFraction;
+        this.deduplicate = builder.deduplicate;
+        this.adaptive = builder.adaptive;
+    }
+
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+
+    public Builder toBuilder() { // a builder pre-filled with this configuration, for deriving variations
+        return new Builder()
+                .populationSize(populationSize)
+                .eliteSize(eliteSize)
+                .mutationRate(mutationRate)
+                .maxGenerations(maxGenerations)
+                .maxGenerationsWithNoImprovement(maxGenerationsWithNoImprovement)
+                .seed(seed)
+                .threads(threads)
+                .selection(selection)
+                .tournamentSize(tournamentSize)
+                .crossover(crossover)
+                .mutation(mutation)
+                .localSearch(localSearch)
+                .neighbourCount(neighbourCount)
+                .initialTours(initialTours)
+                .seededFraction(seededFraction)
+                .deduplicate(deduplicate)
+                .adaptive(adaptive);
+    }
+
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public int getEliteSize() {
+        return eliteSize;
+    }
+
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    public int getMaxGenerationsWithNoImprovement() {
+        return maxGenerationsWithNoImprovement;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public SelectionType getSelection() {
+        return selection;
+    }
+
+    public int getTournamentSize() { // individuals per tournament, for the schemes that hold tournaments
+        return tournamentSize;
+    }
+
+    public CrossoverType getCrossover() {
+        return crossover;
+    }
+
+    public MutationType getMutation() {
+        return mutation;
+    }
+
+    public LocalSearchMode getLocalSearch() {
+        return localSearch;
+    }
+
+    public int getNeighbourCount() { // candidate neighbours per city considered by local search
+        return neighbourCount;
+    }
+
+    public InitialTourType getInitialTours() {
+        return initialTours;
+    }
+
+    public double getSeededFraction() { // share of the initial population built by initialTours
+        return seededFraction;
+    }
+
+    public boolean isDeduplicate() { // whether duplicate individuals are perturbed until they are unique
+        return deduplicate;
+    }
+
+    public boolean isAdaptive() { // whether operators and mutation rate are adapted during the run; selection,
+        // crossover and mutation are then chosen by the algorithm instead of taken from this configuration
+        return adaptive;
+    }
+
+
+    @Override
+    public String toString() {
+        return "PS: " + populationSize + // population size
+                "   ES: " + eliteSize + // elite size
+                "   MG: " + maxGenerations + // maximum generations
+                "   NI: " + maxGenerationsWithNoImprovement + // maximum generations with no improvement
+                "   MR: " + mutationRate + // mutation rate
+                "   SE: " + selection + // selection scheme
+                "   CO: " + crossover + // crossover operator
+                "   MO: " + mutation + // mutation operator
+                "   LS: " + localSearch + // local search mode
+                "   IT: " + initialTours + // initial tours
+                "   DD: " + deduplicate + // deduplication
+                "   AD: " + adaptive; // adaptive control
+    }
+
+
+    public static final class Builder {
+
+        private int populationSize = 80;
+        private int eliteSize = 8;
+        private double mutationRate = 0.02;
+        private int maxGenerations = 100000;
+        private int maxGenerationsWithNoImprovement = 20000;
+        private long seed = System.nanoTime();
+        private int threads = 1;
+        private SelectionType selection = SelectionType.MIXED;
+        private int tournamentSize = 2;
+        private CrossoverType crossover = CrossoverType.ORDER;
+        private MutationType mutation = MutationType.SWAP;
+        private LocalSearchMode localSearch = LocalSearchMode.NONE;
+        private int neighbourCount = 10;
+        private InitialTourType initialTours = InitialTourType.RANDOM;
+        private double seededFraction = 0.25;
+        private boolean deduplicate = false;
+        private boolean adaptive = false;
+
+
+        private Builder() {
+        }
+
+
+        public Builder populationSize(int populationSize) {
+            this.populationSize = populationSize;
+            return this;
+        }
+
+        public Builder eliteSize(int eliteSize) {
+            this.eliteSize = eliteSize;
+            return this;
+        }
+
+        public Builder mutationRate(double mutationRate) {
+            this.mutationRate = mutationRate;
+            return this;
+        }
+
+        public Builder maxGenerations(int maxGenerations) {
+            this.maxGenerations = maxGenerations;
+            return this;
+        }
+
+        public Builder maxGenerationsWithNoImprovement(int maxGenerationsWithNoImprovement) {
+            this.maxGenerationsWithNoImprovement = maxGenerationsWithNoImprovement;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder selection(SelectionType selection) {
+            this.selection = selection;
+            return this;
+        }
+
+        public Builder tournamentSize(int tournamentSize) {
+            this.tournamentSize = tournamentSize;
+            return this;
+        }
+
+        public Builder crossover(CrossoverType crossover) {
+            this.crossover = crossover;
+            return this;
+        }
+
+
+        public Builder mutation(MutationType mutation) {
+            this.mutation = mutation;
+            return this;
+        }
+
+        public Builder localSearch(LocalSearchMode localSearch) {
+            this.localSearch = localSearch;
+            return this;
+        }
+
+        public Builder neighbourCount(int neighbourCount) {
+            this.neighbourCount = neighbourCount;
+            return this;
+        }
+
+        public Builder initialTours(InitialTourType initialTours) {
+            this.initialTours = initialTours;
+            return this;
+        }
+
+        public Builder seededFraction(double seededFraction) {
+            this.seededFraction = seededFraction;
+            return this;
+        }
+
+        public Builder deduplicate(boolean deduplicate) {
+            this.deduplicate = deduplicate;
+            return this;
+        }
+
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+
+        public SolverConfig build() {
+            if (populationSize < 2) throw new IllegalArgumentException("populationSize must be at least 2");
+            if (eliteSize < 0 || eliteSize >= populationSize) {
+                throw new IllegalArgumentException("eliteSize must be between 0 and populationSize - 1");
+            }
+            if (mutationRate < 0 || mutationRate > 1) throw new IllegalArgumentException("mutationRate must be in [0, 1]");
+            if (maxGenerations < 0 || maxGenerationsWithNoImprovement < 0) {
+                throw new IllegalArgumentException("generation limits must not be negative");
+            }
+            if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+            if (selection == null) throw new IllegalArgumentException("selection must not be null");
+            if (tournamentSize < 1) throw new IllegalArgumentException("tournamentSize must be positive");
+            if (crossover == null) throw new IllegalArgumentException("crossover must not be null");
+            if (mutation == null) throw new IllegalArgumentException("mutation must not be null");
+            if (localSearch == null) throw new IllegalArgumentException("localSearch must not be null");
+            if (neighbourCount < 1) throw new IllegalArgumentException("neighbourCount must be positive");
+            if (initialTours == null) throw new IllegalArgumentException("initialTours must not be null");
+            if (seededFraction < 0 || seededFraction > 1) {
+                throw new IllegalArgumentException("seededFraction must be in [0, 1]");
+            }
+            return new SolverConfig(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example;
+
+
+/**
+ * Callback for watching a {@link TspSolver} run. Methods are called on the solver thread, so implementations
+ * must return quickly and hand any heavy work (rendering, I/O) to a thread of their own.
+ */
+public interface SolverListener {
+
+    /**
+     * Called once after every generation.
+     *
+     * @param generation          number of the generation that was just evaluated, starting at 0
+     * @param currentBestDistance best distance in this generation
+     * @param bestDistance        best distance found so far in the run
+     * @param bestRoute           best route found so far; owned by the solver, copy it before keeping it
+     * @param genWithBestDistance generation in which bestRoute was found
+     */
+    void onGeneration(int generation, double currentBestDistance, double bestDistance,
+                      int[] bestRoute, int genWithBestDistance);
+
+
+    default void onFinish(SolverResult result) { // called once when the run has ended
+    }
+}
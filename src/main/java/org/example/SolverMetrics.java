@@ -0,0 +1,261 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Runtime metrics of a {@link TspSolver} run: throughput, time per phase of the evolution, allocation rate,
+ * population diversity and stagnation.
+ * <p>
+ * Attach an instance with {@link TspSolver#enableMetrics}. The solver then times the phases of every
+ * generation and, at most once per sample interval, takes a {@link MetricsSnapshot} on its own thread,
+ * publishes it to the {@link MetricsListener}s and to JMX (see {@link #register}). Without metrics attached
+ * the evolution loop does not even read the clock.
+ */
+public class SolverMetrics implements SolverMetricsMBean {
+
+    public enum Phase {
+        SELECTION, CROSSOVER, MUTATION, EVALUATION, LOCAL_SEARCH
+    }
+
+    private static final MetricsSnapshot EMPTY = new MetricsSnapshot(0, 0, 0, Double.NaN, Double.NaN,
+            0, 0, 0, 0, 0, 0, 0, Double.NaN, Double.NaN, 0, 0, 0, Double.NaN, 0, "");
+
+    private final long sampleIntervalNanos;
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder renderNanos = new LongAdder(); // reported by render threads
+    private volatile MetricsSnapshot latest = EMPTY;
+    private ObjectName objectName; // set while registered with JMX
+
+    // Sampling state, only touched by the solver thread:
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final EdgeEntropy edgeEntropy = new EdgeEntropy();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long listenerNanos;
+    private long startTime;
+    private long lastSampleTime;
+    private int lastSampleGeneration;
+    private long lastAllocatedBytes;
+    private int longestStagnation;
+    private int improvements;
+
+
+    public SolverMetrics() {
+        this(1000);
+    }
+
+
+    public SolverMetrics(long sampleIntervalMillis) {
+        if (sampleIntervalMillis < 0) throw new IllegalArgumentException("sampleIntervalMillis must not be negative");
+        this.sampleIntervalNanos = sampleIntervalMillis * 1_000_000;
+    }
+
+
+    public void addListener(MetricsListener listener) {
+        listeners.add(listener);
+    }
+
+
+    public void removeListener(MetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * Registers these metrics with the platform MBean server as {@code org.example:type=SolverMetrics,name=...}.
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        unregister();
+        ObjectName objectName = new ObjectName("org.example:type=SolverMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+        return objectName;
+    }
+
+
+    public synchronized void unregister() throws JMException {
+        if (objectName == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+        objectName = null;
+    }
+
+
+    public MetricsSnapshot getLatest() {
+        return latest;
+    }
+
+
+    public void addRenderNanos(long nanos) { // may be called from any thread
+        renderNanos.add(nanos);
+    }
+
+
+    void start(int generation) { // called by the solver before the first (or first resumed) generation
+        startTime = System.nanoTime();
+        lastSampleTime = startTime;
+        lastSampleGeneration = generation;
+        lastAllocatedBytes = allocatedBytes();
+        listenerNanos = 0;
+        longestStagnation = 0;
+        improvements = 0;
+        renderNanos.reset();
+    }
+
+
+    void addListenerNanos(long nanos) {
+        listenerNanos += nanos;
+    }
+
+
+    void afterGeneration(int generation, double currentBestDistance, double bestDistance,
+                         int generationsWithNoImprovement, GeneticAlgorithm ga) {
+        // Updating the counters after a generation (generation being the number of generations evolved so far)
+        // and taking a sample if one is due
+        if (generationsWithNoImprovement == 0) improvements++;
+        longestStagnation = Math.max(longestStagnation, generationsWithNoImprovement);
+        long now = System.nanoTime();
+        if (now - lastSampleTime >= sampleIntervalNanos) {
+            sample(now, generation, currentBestDistance, bestDistance, generationsWithNoImprovement, ga);
+        }
+    }
+
+
+    void finish(int generation, double currentBestDistance, double bestDistance, int generationsWithNoImprovement,
+                GeneticAlgorithm ga) { // a last sample at the end of the run
+        sample(System.nanoTime(), generation, currentBestDistance, bestDistance, generationsWithNoImprovement, ga);
+    }
+
+
+    private void sample(long now, int generation, double currentBestDistance, double bestDistance,
+                        int generationsWithNoImprovement, GeneticAlgorithm ga) {
+        double seconds = Math.max(now - lastSampleTime, 1) / 1e9;
+        long allocated = allocatedBytes();
+        double allocationRate = allocated < 0 || lastAllocatedBytes < 0 ? Double.NaN
+                : (allocated - lastAllocatedBytes) / seconds;
+        ga.copyPhaseNanos(phaseNanos);
+        MetricsSnapshot snapshot = new MetricsSnapshot(generation, now - startTime,
+                (generation - lastSampleGeneration) / seconds, currentBestDistance, bestDistance,
+                phaseNanos[Phase.SELECTION.ordinal()], phaseNanos[Phase.CROSSOVER.ordinal()],
+                phaseNanos[Phase.MUTATION.ordinal()], phaseNanos[Phase.EVALUATION.ordinal()],
+                phaseNanos[Phase.LOCAL_SEARCH.ordinal()], listenerNanos, renderNanos.sum(), allocationRate,
+                ga.measureEdgeEntropy(edgeEntropy), generationsWithNoImprovement, longestStagnation, improvements,
+                ga.getMutationRate(), ga.getRestarts(), ga.describeOperatorProbabilities());
+        lastSampleTime = now;
+        lastSampleGeneration = generation;
+        lastAllocatedBytes = allocated;
+        latest = snapshot;
+        for (MetricsListener listener : listeners) listener.onMetrics(snapshot);
+    }
+
+
+    private long allocatedBytes() { // bytes allocated by all threads of the JVM so far, or -1
+        if (threadBean instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+
+    @Override
+    public int getGeneration() {
+        return latest.generation();
+    }
+
+    @Override
+    public double getGenerationsPerSecond() {
+        return latest.generationsPerSecond();
+    }
+
+    @Override
+    public double getCurrentBestDistance() {
+        return latest.currentBestDistance();
+    }
+
+    @Override
+    public double getBestDistance() {
+        return latest.bestDistance();
+    }
+
+    @Override
+    public long getSelectionNanos() {
+        return latest.selectionNanos();
+    }
+
+    @Override
+    public long getCrossoverNanos() {
+        return latest.crossoverNanos();
+    }
+
+    @Override
+    public long getMutationNanos() {
+        return latest.mutationNanos();
+    }
+
+    @Override
+    public long getEvaluationNanos() {
+        return latest.evaluationNanos();
+    }
+
+    @Override
+    public long getLocalSearchNanos() {
+        return latest.localSearchNanos();
+    }
+
+    @Override
+    public long getListenerNanos() {
+        return latest.listenerNanos();
+    }
+
+    @Override
+    public long getRenderNanos() {
+        return latest.renderNanos();
+    }
+
+    @Override
+    public double getAllocatedBytesPerSecond() {
+        return latest.allocatedBytesPerSecond();
+    }
+
+    @Override
+    public double getEdgeEntropy() {
+        return latest.edgeEntropy();
+    }
+
+    @Override
+    public int getGenerationsWithNoImprovement() {
+        return latest.generationsWithNoImprovement();
+    }
+
+    @Override
+    public int getLongestStagnation() {
+        return latest.longestStagnation();
+    }
+
+    @Override
+    public int getImprovements() {
+        return latest.improvements();
+    }
+
+    @Override
+    public double getMutationRate() {
+        return latest.mutationRate();
+    }
+
+    @Override
+    public int getRestarts() {
+        return latest.restarts();
+    }
+
+    @Override
+    public String getOperatorProbabilities() {
+        return latest.operatorProbabilities();
+    }
+}
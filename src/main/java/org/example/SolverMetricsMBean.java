@@ -0,0 +1,46 @@
+package org.example;
+
+
+/**
+ * JMX view of a {@link SolverMetrics}: the values of its latest sample.
+ */
+public interface SolverMetricsMBean {
+
+    int getGeneration();
+
+    double getGenerationsPerSecond();
+
+    double getCurrentBestDistance();
+
+    double getBestDistance();
+
+    long getSelectionNanos();
+
+    long getCrossoverNanos();
+
+    long getMutationNanos();
+
+    long getEvaluationNanos();
+
+    long getLocalSearchNanos();
+
+    long getListenerNanos();
+
+    long getRenderNanos();
+
+    double getAllocatedBytesPerSecond();
+
+    double getEdgeEntropy();
+
+    int getGenerationsWithNoImprovement();
+
+    int getLongestStagnation();
+
+    int getImprovements();
+
+    double getMutationRate();
+
+    int getRestarts();
+
+    String getOperatorProbabilities();
+}
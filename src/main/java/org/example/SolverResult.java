@@ -0,0 +1,59 @@
+package org.example;
+
+
+/**
+ * Outcome of a {@link TspSolver#solve()} call: the best route found and some statistics about the run.
+ */
+public final class SolverResult {
+
+    private final int[] bestRoute;
+    private final double bestDistance;
+    private final int generations;
+    private final int genWithBestDistance;
+    private final long elapsedNanos;
+    private final ProgressRecorder.Series bestDistanceHistory;
+
+
+    SolverResult(int[] bestRoute, double bestDistance, int generations, int genWithBestDistance,
+                 long elapsedNanos, ProgressRecorder.Series bestDistanceHistory) {
+        this.bestRoute = bestRoute.clone();
+        this.bestDistance = bestDistance;
+        this.generations = generations;
+        this.genWithBestDistance = genWithBestDistance;
+        this.elapsedNanos = elapsedNanos;
+        this.bestDistanceHistory = bestDistanceHistory;
+    }
+
+
+    public int[] getBestRoute() { // best route ever, repeating its first city at the end
+        return bestRoute.clone();
+    }
+
+    public double getBestDistance() {
+        return bestDistance;
+    }
+
+    public int getGenerations() { // number of generations that were evolved
+        return generations;
+    }
+
+    public int getGenWithBestDistance() {
+        return genWithBestDistance;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public ProgressRecorder.Series getBestDistanceHistory() { // best distance in every generation, downsampled
+        // for older generations of long runs
+        return bestDistanceHistory;
+    }
+
+
+    @Override
+    public String toString() {
+        return "Best distance " + bestDistance + " found in generation " + genWithBestDistance
+                + " of " + generations + " (" + elapsedNanos / 1_000_000 + " ms)";
+    }
+}
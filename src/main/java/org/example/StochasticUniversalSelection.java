@@ -0,0 +1,63 @@
+package org.example;
+
+
+/**
+ * Stochastic universal sampling.
+ * <p>
+ * Once per generation a single random offset places evenly spaced pointers over the roulette wheel (slices
+ * proportional to inverse route distance), two pointers per individual, as a generation draws two parents
+ * per child. That gives every individual almost exactly its expected number of picks. The picks are
+ * shuffled into a pool, which only breaks up the order of the wheel, and draw number {@code d} of the
+ * generation gets entry {@code d} of the pool. Every entry is handed out at most once, so the low spread
+ * survives, and as the draw numbers follow the child slots no shared cursor is needed and runs stay
+ * reproducible with any number of workers. Draws without a number (reselections) take a random entry.
+ */
+public class StochasticUniversalSelection implements Selection {
+
+    private final double[] weights;
+    private final int[] pool;
+
+
+    public StochasticUniversalSelection(int populationSize) {
+        weights = new double[populationSize];
+        pool = new int[2 * populationSize];
+    }
+
+
+    @Override
+    public void prepare(double[] routeDistances, Rng random) {
+        int n = weights.length;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1 / routeDistances[i];
+            total += weights[i];
+        }
+        double spacing = total / pool.length;
+        double pointer = random.nextDouble() * spacing;
+        double cumulative = weights[0];
+        int individual = 0;
+        for (int p = 0; p < pool.length; p++) { // walking the pointers and the wheel side by side
+            while (cumulative <= pointer && individual < n - 1) cumulative += weights[++individual];
+            pool[p] = individual;
+            pointer += spacing;
+        }
+        for (int p = pool.length - 1; p > 0; p--) { // shuffling the pool (Fisher-Yates)
+            int k = random.nextInt(p + 1);
+            int tmp = pool[p];
+            pool[p] = pool[k];
+            pool[k] = tmp;
+        }
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, Rng random) {
+        return pool[random.nextInt(pool.length)];
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, int draw, Rng random) {
+        return pool[Math.floorMod(draw, pool.length)]; // wrapping around only if a caller draws more than planned
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+
+/**
+ * Swap mutation: every city is, with probability mutationRate, swapped with a city at a random position.
+ * <p>
+ * A swap touches at most four edges: the two at each of the swapped positions. Their lengths are summed
+ * before and after the swap (an edge shared by both positions is only counted once), which gives the
+ * change in route length in constant time.
+ */
+public class SwapMutation implements Mutation {
+
+    private final int[] edges = new int[4]; // positions whose outgoing edge the current swap touches
+
+
+    @Override
+    public double mutate(int[] routes, int offset, int numberOfCities, double mutationRate,
+                         Rng random, DistanceMatrix distanceMatrix) {
+        double delta = 0;
+        for (int swapped = 0; swapped < numberOfCities; swapped++) {
+            if (random.nextDouble() < mutationRate) { // Checking if mutation should occur based on the mutation rate
+                // Determining which city to swap the current city with:
+                int swapWith = (int) (random.nextDouble() * numberOfCities);
+                if (swapWith == swapped) continue;
+                int count = touchedEdges(swapped, swapWith, numberOfCities);
+                delta -= edgeLengths(routes, offset, numberOfCities, count, distanceMatrix);
+                // Swapping the genes:
+                int city1 = routes[offset + swapped];
+                routes[offset + swapped] = routes[offset + swapWith];
+                routes[offset + swapWith] = city1;
+                delta += edgeLengths(routes, offset, numberOfCities, count, distanceMatrix);
+            }
+        }
+        return delta;
+    }
+
+
+    private int touchedEdges(int i, int j, int numberOfCities) {
+        // The edge starting at position p goes to position p + 1; positions i and j each touch the edge
+        // coming in from the previous position and the edge going out to the next one
+        int count = 0;
+        count = addEdge((i - 1 + numberOfCities) % numberOfCities, count);
+        count = addEdge(i, count);
+        count = addEdge((j - 1 + numberOfCities) % numberOfCities, count);
+        count = addEdge(j, count);
+        return count;
+    }
+
+
+    private int addEdge(int edge, int count) {
+        for (int k = 0; k < count; k++) {
+            if (edges[k] == edge) return count; // adjacent positions share an edge
+        }
+        edges[count] = edge;
+        return count + 1;
+    }
+
+
+    private double edgeLengths(int[] routes, int offset, int numberOfCities, int count,
+                               DistanceMatrix distanceMatrix) {
+        double sum = 0;
+        for (int k = 0; k < count; k++) {
+            int from = edges[k];
+            int to = from + 1 == numberOfCities ? 0 : from + 1;
+            sum += distanceMatrix.distance(routes[offset + from], routes[offset + to]);
+        }
+        return sum;
+    }
+}
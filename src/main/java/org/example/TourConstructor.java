@@ -0,0 +1,234 @@
+package org.example;
+
+import java.util.Arrays;
+
+
+/**
+ * Constructive heuristics that build reasonable tours directly, for seeding the initial population: on large
+ * instances random tours start so far from any good solution that most of the run goes into undoing them.
+ * <p>
+ * With coordinates all constructions run in O(N log N) on a {@link KdTree}; explicit matrices only support
+ * the nearest neighbour tour, by an O(N^2) scan. Tours are written into a slice of a flat population buffer
+ * like the one {@link GeneticAlgorithm} keeps. Instances are not thread-safe.
+ */
+final class TourConstructor {
+
+    private static final int GREEDY_CANDIDATES = 8; // candidate edges per city for the greedy matching
+    private static final int HILBERT_ORDER = 15; // grid of 2^15 x 2^15 cells, so a curve index fits in 30 bits
+    private static final int KICK_WINDOW = 12; // longest stretch of a tour a kick rearranges
+
+    private final DistanceMatrix distanceMatrix;
+    private final int numberOfCities;
+    private final double[] xs; // null for an explicit matrix
+    private final double[] ys;
+    private final KdTree tree; // null for an explicit matrix
+
+
+    TourConstructor(DistanceMatrix distanceMatrix) {
+        this.distanceMatrix = distanceMatrix;
+        this.numberOfCities = distanceMatrix.size();
+        this.xs = distanceMatrix.hasCoordinates() ? distanceMatrix.xs() : null;
+        this.ys = distanceMatrix.hasCoordinates() ? distanceMatrix.ys() : null;
+        this.tree = xs == null ? null : new KdTree(xs, ys, Math.min(GREEDY_CANDIDATES, numberOfCities - 1));
+    }
+
+
+    /**
+     * Writes a tour built by {@code type} into {@code tour[offset, offset + numberOfCities)}; {@code start} is
+     * the first city of a nearest neighbour tour. {@code type} must not be RANDOM or MIXED.
+     */
+    void construct(InitialTourType type, int start, int[] tour, int offset) {
+        if (tree == null) { // without coordinates there is nothing to build the other constructions on
+            nearestNeighbourByScan(start, tour, offset);
+            return;
+        }
+        switch (type) {
+            case NEAREST_NEIGHBOUR -> nearestNeighbour(start, tour, offset);
+            case GREEDY -> greedy(tour, offset);
+            case SPACE_FILLING_CURVE -> spaceFillingCurve(tour, offset);
+            default -> throw new IllegalArgumentException("Not a construction: " + type);
+        }
+    }
+
+
+    private void nearestNeighbour(int start, int[] tour, int offset) {
+        // Always moving on to the nearest city not visited yet; visited cities are removed from the tree
+        tree.reset();
+        int city = start;
+        for (int i = 0; i < numberOfCities; i++) {
+            tour[offset + i] = city;
+            tree.remove(city);
+            if (i < numberOfCities - 1) city = tree.nearestRemaining(xs[city], ys[city]);
+        }
+    }
+
+
+    private void nearestNeighbourByScan(int start, int[] tour, int offset) {
+        boolean[] visited = new boolean[numberOfCities];
+        int city = start;
+        for (int i = 0; i < numberOfCities; i++) {
+            tour[offset + i] = city;
+            visited[city] = true;
+            int nearest = -1;
+            double nearestDistance = Double.MAX_VALUE;
+            for (int other = 0; other < numberOfCities; other++) {
+                if (visited[other]) continue;
+                double d = distanceMatrix.distance(city, other);
+                if (d < nearestDistance) {
+                    nearestDistance = d;
+                    nearest = other;
+                }
+            }
+            city = nearest;
+        }
+    }
+
+
+    private void greedy(int[] tour, int offset) {
+        // Greedy edge matching: going through the candidate edges from short to long, every edge is taken that
+        // neither gives a city a third edge nor closes a cycle. This leaves a set of path fragments, which are
+        // then chained together nearest endpoint first.
+        int k = Math.min(GREEDY_CANDIDATES, numberOfCities - 1);
+        int[] candidates = new int[Math.multiplyExact(numberOfCities, k)];
+        long[] edges = new long[candidates.length]; // float bits of the length in the high half, so sorting the
+        // keys sorts by length; the index into candidates in the low half
+        int[] found = new int[k];
+        tree.reset(); // a previous construction may have left cities removed
+        for (int city = 0; city < numberOfCities; city++) {
+            int count = tree.nearest(city, k, found);
+            for (int r = 0; r < count; r++) {
+                int index = city * k + r;
+                candidates[index] = found[r];
+                float length = (float) distanceMatrix.distance(city, found[r]);
+                edges[index] = (long) Float.floatToRawIntBits(length) << 32 | index;
+            }
+        }
+        Arrays.sort(edges); // an edge seen from both ends comes twice; the second copy is rejected as a cycle
+
+        int[] adjacent = new int[2 * numberOfCities]; // the (up to) two fragment neighbours of every city
+        Arrays.fill(adjacent, -1);
+        int[] parent = new int[numberOfCities]; // union-find over the fragments
+        for (int i = 0; i < numberOfCities; i++) parent[i] = i;
+        int taken = 0;
+        for (long edge : edges) {
+            if (taken == numberOfCities - 1) break; // a single path already
+            int index = (int) edge;
+            int a = index / k;
+            int b = candidates[index];
+            if (adjacent[2 * a + 1] >= 0 || adjacent[2 * b + 1] >= 0) continue; // degree 2 already
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA == rootB) continue; // would close a cycle
+            parent[rootA] = rootB;
+            adjacent[adjacent[2 * a] < 0 ? 2 * a : 2 * a + 1] = b;
+            adjacent[adjacent[2 * b] < 0 ? 2 * b : 2 * b + 1] = a;
+            taken++;
+        }
+
+        // Chaining the fragments: only endpoints stay in the tree, so the nearest remaining city is always the
+        // end of a fragment that has not been walked yet
+        tree.reset();
+        int current = -1;
+        for (int city = 0; city < numberOfCities; city++) {
+            if (adjacent[2 * city + 1] >= 0) tree.remove(city);
+            else if (current < 0) current = city;
+        }
+        int position = offset;
+        while (true) {
+            int previous = -1;
+            int city = current;
+            while (true) { // walking the fragment from one end to the other
+                tour[position++] = city;
+                tree.remove(city);
+                int next = adjacent[2 * city] != previous ? adjacent[2 * city] : adjacent[2 * city + 1];
+                if (next < 0) break;
+                previous = city;
+                city = next;
+            }
+            if (position == offset + numberOfCities) return;
+            current = tree.nearestRemaining(xs[city], ys[city]);
+        }
+    }
+
+
+    private static int find(int[] parent, int city) {
+        while (parent[city] != city) {
+            parent[city] = parent[parent[city]]; // path halving
+            city = parent[city];
+        }
+        return city;
+    }
+
+
+    private void spaceFillingCurve(int[] tour, int offset) {
+        // Visiting the cities in the order a Hilbert curve passes through them: neighbouring cells of the curve
+        // are neighbours in the plane, so the tour is typically some 25-40% longer than optimal
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int city = 0; city < numberOfCities; city++) {
+            minX = Math.min(minX, xs[city]);
+            maxX = Math.max(maxX, xs[city]);
+            minY = Math.min(minY, ys[city]);
+            maxY = Math.max(maxY, ys[city]);
+        }
+        int cells = 1 << HILBERT_ORDER;
+        double span = Math.max(maxX - minX, maxY - minY);
+        double scale = span > 0 ? (cells - 1) / span : 0; // the same scale on both axes keeps the curve square
+        long[] keys = new long[numberOfCities]; // curve index in the high half, city in the low half
+        for (int city = 0; city < numberOfCities; city++) {
+            int x = (int) ((xs[city] - minX) * scale);
+            int y = (int) ((ys[city] - minY) * scale);
+            keys[city] = (long) hilbertIndex(x, y, cells) << 32 | city;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < numberOfCities; i++) tour[offset + i] = (int) keys[i];
+    }
+
+
+    private static int hilbertIndex(int x, int y, int cells) {
+        // Position of cell (x, y) along the Hilbert curve through a cells x cells grid
+        int index = 0;
+        for (int s = cells / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += s * s * ((3 * rx) ^ ry);
+            if (ry == 0) { // rotating the quadrant so the curve continues in the right orientation
+                if (rx == 1) {
+                    x = cells - 1 - x;
+                    y = cells - 1 - y;
+                }
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Perturbs the tour in {@code tour[offset, offset + numberOfCities)} by swapping two adjacent segments
+     * within a short random stretch (a local double bridge), which changes three edges. Used to derive varied
+     * copies of a constructed tour without the long edges a random shuffle would introduce.
+     */
+    static void kick(int[] tour, int offset, int numberOfCities, Rng random) {
+        int window = Math.min(numberOfCities, KICK_WINDOW);
+        if (window < 2) return;
+        int from = offset + random.nextInt(numberOfCities - window + 1);
+        int to = from + 2 + random.nextInt(window - 1); // exclusive end of the stretch, at least two cities
+        int middle = from + 1 + random.nextInt(to - from - 1);
+        // Swapping [from, middle) and [middle, to) by three reversals
+        reverse(tour, from, middle - 1);
+        reverse(tour, middle, to - 1);
+        reverse(tour, from, to - 1);
+    }
+
+
+    private static void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int tmp = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = tmp;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+
+/**
+ * 64-bit fingerprint of a tour that depends only on its set of undirected edges, so all rotations and both
+ * directions of the same cyclic tour hash alike.
+ * <p>
+ * Every edge is mixed into a pseudo-random 64-bit value and the values are added up; addition does not care
+ * about order, which gives the invariance, and two different tours collide with a probability of about
+ * 2^-64. Computing it is a single pass over the tour, cheaper than evaluating its length.
+ */
+public final class TourHash {
+
+    private TourHash() {
+    }
+
+
+    /**
+     * Hash of the cyclic tour in {@code tours[offset, offset + numberOfCities)}; never 0, so 0 can mark an
+     * empty slot in hash tables.
+     */
+    public static long of(int[] tours, int offset, int numberOfCities) {
+        long hash = edge(tours[offset + numberOfCities - 1], tours[offset]); // the closing edge
+        for (int i = offset; i < offset + numberOfCities - 1; i++) hash += edge(tours[i], tours[i + 1]);
+        return hash != 0 ? hash : 1;
+    }
+
+
+    private static long edge(int a, int b) {
+        long key = a < b ? (long) a << 32 | b : (long) b << 32 | a; // the same key in either direction
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L; // SplitMix64 finalizer
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+}
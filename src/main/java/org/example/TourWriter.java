@@ -0,0 +1,41 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+/**
+ * Writes routes as TSPLIB {@code .tour} files: a small header, then the cities one per line, numbered from 1,
+ * terminated by -1.
+ */
+public final class TourWriter {
+
+    private TourWriter() {
+    }
+
+
+    /**
+     * Writes {@code route} to {@code path}. The route may repeat its first city at the end, as
+     * {@link SolverResult#getBestRoute()} does; that repetition is not written.
+     */
+    public static void write(Path path, String name, int[] route, double length) throws IOException {
+        int numberOfCities = route.length > 1 && route[0] == route[route.length - 1] ? route.length - 1 : route.length;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write("NAME : " + name + ".tour\n");
+            writer.write("COMMENT : Length = " + length + "\n");
+            writer.write("TYPE : TOUR\n");
+            writer.write("DIMENSION : " + numberOfCities + "\n");
+            writer.write("TOUR_SECTION\n");
+            for (int i = 0; i < numberOfCities; i++) {
+                writer.write(Integer.toString(route[i] + 1));
+                writer.write('\n');
+            }
+            writer.write("-1\nEOF\n");
+        }
+    }
+}
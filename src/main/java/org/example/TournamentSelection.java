@@ -0,0 +1,62 @@
+package org.example;
+
+
+/**
+ * k-way tournament selection: the individual with the shortest route among k distinct randomly picked ones
+ * wins. Larger k means stronger selection pressure; it needs no table and no preparation. The candidates are
+ * drawn without replacement, like the original two-way tournament did, with Floyd's sampling algorithm; only
+ * tournaments of more than two need a scratch array for that. The array is kept between picks, so an instance
+ * must only be used by one thread at a time, and {@link #forWorker()} gives every worker its own.
+ */
+public class TournamentSelection implements Selection {
+
+    private final int populationSize;
+    private final int tournamentSize;
+    private final int[] candidates; // the candidates drawn so far by a tournament of more than two
+
+
+    public TournamentSelection(int populationSize, int tournamentSize) {
+        if (tournamentSize < 1) throw new IllegalArgumentException("tournamentSize must be positive");
+        this.populationSize = populationSize;
+        this.tournamentSize = Math.min(tournamentSize, populationSize); // there are no more distinct candidates
+        this.candidates = this.tournamentSize > 2 ? new int[this.tournamentSize] : null;
+    }
+
+
+    @Override
+    public void prepare(double[] routeDistances, Rng random) {
+    }
+
+
+    @Override
+    public int select(double[] routeDistances, Rng random) {
+        if (tournamentSize == 1) return random.nextInt(populationSize);
+        if (tournamentSize == 2) { // Floyd's algorithm for two, without the array
+            int first = random.nextInt(populationSize - 1);
+            int second = random.nextInt(populationSize);
+            if (second == first) second = populationSize - 1;
+            return routeDistances[second] < routeDistances[first] ? second : first;
+        }
+        // Floyd's algorithm: drawing from [0, j] for j = n - k ... n - 1, and taking j itself when the draw is
+        // taken already, gives every set of k candidates the same chance
+        int winner = -1;
+        for (int k = 0, j = populationSize - tournamentSize; k < tournamentSize; k++, j++) {
+            int candidate = random.nextInt(j + 1);
+            for (int c = 0; c < k; c++) {
+                if (candidates[c] == candidate) {
+                    candidate = j; // j has not been drawn yet: every earlier draw was below j
+                    break;
+                }
+            }
+            candidates[k] = candidate;
+            if (winner < 0 || routeDistances[candidate] < routeDistances[winner]) winner = candidate;
+        }
+        return winner;
+    }
+
+
+    @Override
+    public Selection forWorker() {
+        return candidates == null ? this : new TournamentSelection(populationSize, tournamentSize);
+    }
+}
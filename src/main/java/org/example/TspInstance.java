@@ -0,0 +1,21 @@
+package org.example;
+
+
+/**
+ * A problem instance as read by {@link InstanceReader}: its name, the coordinates to draw the cities at and
+ * the distances to solve it with.
+ * <p>
+ * xs and ys are the node coordinates, or the display data of an instance with explicit weights; they are
+ * null when an explicit instance has no display data.
+ */
+public record TspInstance(String name, double[] xs, double[] ys, DistanceMatrix distanceMatrix) {
+
+    public int size() {
+        return distanceMatrix.size();
+    }
+
+
+    public boolean hasCoordinates() {
+        return xs != null;
+    }
+}
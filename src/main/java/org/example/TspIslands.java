@@ -0,0 +1,63 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+
+/**
+ * Command line entry point for the island model: evolves several populations of one instance with ring
+ * migration and writes the best route to {@code tours/<name>.tour}. With two ports given, the run also
+ * migrates to the process listening on the next port over a {@link SocketMigrationLink}; start one process
+ * per port, each sending to the next, to form a ring of processes.
+ * <p>
+ * Usage: {@code TspIslands <instance.tsp|instance.csv> [islands [listenPort nextPort]]}
+ */
+public class TspIslands {
+
+    private static final int DEFAULT_ISLANDS = 4;
+    private static final int MIGRATION_INTERVAL = 100;
+    private static final int MIGRANT_COUNT = 4;
+    private static final int REPORT_EVERY_N_EPOCHS = 10;
+
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length == 3) {
+            System.err.println("Usage: TspIslands <instance.tsp|instance.csv> [islands [listenPort nextPort]]");
+            return;
+        }
+        TspInstance instance = InstanceReader.read(Path.of(args[0]));
+        int islands = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ISLANDS;
+        // The islands already keep as many cores busy as there are islands; the worker pool they share only
+        // adds the cores beyond that
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - islands);
+        SolverConfig config = SolverConfig.builder()
+                .threads(threads)
+                .initialTours(InitialTourType.MIXED)
+                .deduplicate(true)
+                .adaptive(true)
+                .build();
+        IslandModel model = new IslandModel(instance.distanceMatrix(), config, islands, MIGRATION_INTERVAL,
+                MIGRANT_COUNT, MigrationTopology.RING);
+        model.addListener((generation, currentBestDistance, bestDistance, bestRoute, genWithBestDistance) -> {
+            if ((generation + 1) % (MIGRATION_INTERVAL * REPORT_EVERY_N_EPOCHS) == 0) {
+                System.out.println("Generation " + (generation + 1) + ": best distance " + bestDistance);
+            }
+        });
+
+        SocketMigrationLink link = args.length > 3
+                ? SocketMigrationLink.open(Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+                instance.distanceMatrix())
+                : null;
+        SolverResult result;
+        try {
+            model.setRemoteLink(link);
+            result = model.solve();
+        } finally {
+            if (link != null) link.close();
+        }
+        System.out.println(result);
+        Path tour = Path.of("tours", instance.name() + ".tour");
+        TourWriter.write(tour, instance.name(), result.getBestRoute(), result.getBestDistance());
+        System.out.println("Best route written to " + tour);
+    }
+}
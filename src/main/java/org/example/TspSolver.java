@@ -0,0 +1,225 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Headless, reusable travelling salesman solver. It runs the genetic algorithm on a {@link DistanceMatrix}
+ * until one of the generation limits of its {@link SolverConfig} is reached and has no dependency on AWT or
+ * Swing; visualisation and logging plug in as {@link SolverListener}s.
+ * <p>
+ * Every call of {@link #solve()} starts a fresh run from the configured seed, unless checkpoints are enabled
+ * and the checkpoint file exists: then the run continues from there, exactly as the interrupted run would
+ * have gone on.
+ */
+public class TspSolver {
+
+    private final DistanceMatrix distanceMatrix;
+    private final SolverConfig config;
+    private final List<SolverListener> listeners = new CopyOnWriteArrayList<>();
+    private Path checkpointFile; // null while checkpoints are disabled
+    private int checkpointInterval;
+    private Path historyFile; // null unless the history is streamed to a file
+    private SolverMetrics metrics; // null while metrics are disabled
+
+
+    public TspSolver(DistanceMatrix distanceMatrix, SolverConfig config) {
+        this.distanceMatrix = distanceMatrix;
+        this.config = config;
+    }
+
+
+    public void addListener(SolverListener listener) {
+        listeners.add(listener);
+    }
+
+
+    public void removeListener(SolverListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    public SolverConfig getConfig() {
+        return config;
+    }
+
+
+    public void enableCheckpoints(Path file, int everyNGenerations) {
+        // Saving the complete state of the run to file every everyNGenerations generations (and at the end);
+        // a later solve() resumes from that file
+        if (everyNGenerations < 1) throw new IllegalArgumentException("everyNGenerations must be positive");
+        this.checkpointFile = file;
+        this.checkpointInterval = everyNGenerations;
+    }
+
+
+    public void streamHistoryTo(Path file) {
+        // Writing the best distance of every generation to a CSV file while the run goes on; the history in the
+        // result is downsampled for long runs, this file is not
+        this.historyFile = file;
+    }
+
+
+    public void enableMetrics(SolverMetrics metrics) { // null disables them again
+        this.metrics = metrics;
+    }
+
+
+    public SolverResult solve() {
+        long startTime = System.nanoTime();
+        Run run = new Run(distanceMatrix.size());
+
+        try (GeneticAlgorithm ga = new GeneticAlgorithm(distanceMatrix, config);
+             Checkpointer checkpointer = checkpointFile == null ? null : new Checkpointer(checkpointFile);
+             ProgressRecorder history = run.history) {
+            boolean resumed = checkpointer != null && Files.exists(checkpointFile);
+            if (resumed) {
+                resume(run, ga); // continuing an interrupted run
+            } else {
+                ga.copyBestRouteInPop(run.bestRoute); // starting from the best route of the initial population
+                run.bestDistance = ga.getBestDistanceInPop();
+            }
+            if (historyFile != null) history.streamTo(historyFile, resumed);
+            SolverMetrics metrics = this.metrics;
+            if (metrics != null) {
+                ga.setPhaseTiming(true);
+                metrics.start(run.generationCount);
+            }
+            while (run.generationCount < config.getMaxGenerations()
+                    && run.generationsWithNoImprovement < config.getMaxGenerationsWithNoImprovement()) {
+                ga.evolvePopulation(); // performing crossover and mutation on the current generation
+                double currentBestDistance = ga.getBestDistanceInPop(); // best distance in current generation
+                history.record(currentBestDistance);
+
+                if (currentBestDistance < run.bestDistance) { // the current generation beats the best distance ever
+                    run.bestDistance = currentBestDistance;
+                    ga.copyBestRouteInPop(run.bestRoute);
+                    run.genWithBestDistance = run.generationCount;
+                    run.generationsWithNoImprovement = 0;
+                } else run.generationsWithNoImprovement++;
+
+                long listenerStart = metrics != null ? System.nanoTime() : 0;
+                for (SolverListener listener : listeners) {
+                    listener.onGeneration(run.generationCount, currentBestDistance, run.bestDistance,
+                            run.bestRoute, run.genWithBestDistance);
+                }
+                run.generationCount++;
+                if (metrics != null) {
+                    metrics.addListenerNanos(System.nanoTime() - listenerStart);
+                    metrics.afterGeneration(run.generationCount, currentBestDistance, run.bestDistance,
+                            run.generationsWithNoImprovement, ga);
+                }
+                if (checkpointer != null && run.generationCount % checkpointInterval == 0) {
+                    checkpoint(checkpointer, run, ga, startTime, false); // skipped while the last one is written
+                }
+            }
+            if (checkpointer != null) {
+                checkpoint(checkpointer, run, ga, startTime, true); // a restarted finished run returns at once
+            }
+            if (metrics != null) {
+                metrics.finish(run.generationCount, ga.getBestDistanceInPop(), run.bestDistance,
+                        run.generationsWithNoImprovement, ga);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to stream the history to " + historyFile, e);
+        }
+        SolverResult result = new SolverResult(run.bestRoute, run.bestDistance, run.generationCount,
+                run.genWithBestDistance, run.elapsedNanos(startTime), run.history.getSeries());
+        for (SolverListener listener : listeners) listener.onFinish(result);
+        return result;
+    }
+
+
+    private void checkpoint(Checkpointer checkpointer, Run run, GeneticAlgorithm ga, long startTime,
+                            boolean waitForPrevious) {
+        long elapsedNanos = run.elapsedNanos(startTime);
+        run.history.flush(); // the checkpoint records how much of the history file is complete
+        checkpointer.write(run.stateBytes() + ga.stateBytes(), buffer -> {
+            run.saveState(buffer, ga.getPopulationSize(), config.getSeed(), elapsedNanos);
+            ga.saveState(buffer);
+        }, waitForPrevious);
+    }
+
+
+    private void resume(Run run, GeneticAlgorithm ga) {
+        ByteBuffer buffer;
+        try {
+            buffer = Checkpointer.read(checkpointFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to resume from " + checkpointFile, e);
+        }
+        run.restoreState(buffer, ga.getPopulationSize(), config.getSeed());
+        ga.restoreState(buffer);
+    }
+
+
+    /**
+     * Progress of a run: everything besides the population that a checkpoint has to carry.
+     */
+    private static final class Run {
+
+        final int numberOfCities;
+        int generationCount = 0;
+        int genWithBestDistance = 0; // generation that contains the best distance ever
+        int generationsWithNoImprovement = 0;
+        double bestDistance; // best distance ever/best distance in all generations yet
+        final int[] bestRoute; // reused for every improvement
+        final ProgressRecorder history = new ProgressRecorder(); // best distance in every generation
+        long previousNanos; // time spent before the run was resumed
+
+
+        Run(int numberOfCities) {
+            this.numberOfCities = numberOfCities;
+            this.bestRoute = new int[numberOfCities + 1];
+        }
+
+
+        long elapsedNanos(long startTime) {
+            return previousNanos + System.nanoTime() - startTime;
+        }
+
+
+        int stateBytes() {
+            return 2 * Integer.BYTES + Long.BYTES + 3 * Integer.BYTES + Double.BYTES + Long.BYTES
+                    + numberOfCities * Checkpointer.cityBytes(numberOfCities)
+                    + history.stateBytes();
+        }
+
+
+        void saveState(ByteBuffer buffer, int populationSize, long seed, long elapsedNanos) {
+            // What the checkpoint belongs to, so it is not resumed by a different run...
+            buffer.putInt(numberOfCities).putInt(populationSize).putLong(seed);
+            // ...and where the run stood:
+            buffer.putInt(generationCount).putInt(genWithBestDistance).putInt(generationsWithNoImprovement);
+            buffer.putDouble(bestDistance).putLong(elapsedNanos);
+            Checkpointer.putCities(buffer, bestRoute, 0, numberOfCities, numberOfCities);
+            history.saveState(buffer);
+        }
+
+
+        void restoreState(ByteBuffer buffer, int populationSize, long seed) {
+            int savedCities = buffer.getInt();
+            int savedPopulationSize = buffer.getInt();
+            long savedSeed = buffer.getLong();
+            if (savedCities != numberOfCities || savedPopulationSize != populationSize || savedSeed != seed) {
+                throw new IllegalArgumentException("The checkpoint belongs to a different run ("
+                        + savedCities + " cities, population size " + savedPopulationSize + ", seed " + savedSeed
+                        + ")");
+            }
+            generationCount = buffer.getInt();
+            genWithBestDistance = buffer.getInt();
+            generationsWithNoImprovement = buffer.getInt();
+            bestDistance = buffer.getDouble();
+            previousNanos = buffer.getLong();
+            Checkpointer.getCities(buffer, bestRoute, 0, numberOfCities, numberOfCities);
+            bestRoute[numberOfCities] = bestRoute[0];
+            history.restoreState(buffer);
+        }
+    }
+}
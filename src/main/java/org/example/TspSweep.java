@@ -0,0 +1,53 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+
+/**
+ * Command line entry point for tuning: sweeps population size, elite size, mutation rate and the stagnation
+ * limit on one instance and writes the aggregated results to a CSV file.
+ * <p>
+ * Usage: {@code TspSweep <instance.tsp|instance.csv> [results.csv [targetDistance]]}
+ */
+public class TspSweep {
+
+    private static final int SEEDS_PER_CONFIGURATION = 5;
+    private static final int MAX_GENERATIONS = 100000;
+
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TspSweep <instance.tsp|instance.csv> [results.csv [targetDistance]]");
+            return;
+        }
+        TspInstance instance = InstanceReader.read(Path.of(args[0]));
+        Path output = Path.of(args.length > 1 ? args[1] : instance.name() + "-sweep.csv");
+        SolverConfig base = SolverConfig.builder().maxGenerations(MAX_GENERATIONS).build();
+        ParameterSweep sweep = new ParameterSweep(instance.distanceMatrix(), base)
+                .vary("populationSize", List.of(40, 80, 160), SolverConfig.Builder::populationSize)
+                .vary("eliteSize", List.of(2, 8, 16), SolverConfig.Builder::eliteSize)
+                .vary("mutationRate", List.of(0.005, 0.02, 0.05), SolverConfig.Builder::mutationRate)
+                .vary("maxGenerationsWithNoImprovement", List.of(5000, 20000),
+                        SolverConfig.Builder::maxGenerationsWithNoImprovement)
+                .seedsPerConfiguration(SEEDS_PER_CONFIGURATION);
+        if (args.length > 2) sweep.targetDistance(Double.parseDouble(args[2]));
+
+        long startTime = System.nanoTime();
+        int[] finished = {0};
+        List<ParameterSweep.Summary> summaries = sweep.run(result -> {
+            synchronized (finished) { // progress is reported from all pool threads
+                System.out.println("Run " + ++finished[0] + ": configuration " + result.configIndex()
+                        + ", seed " + result.seed() + ", best distance " + result.bestDistance());
+            }
+        });
+        sweep.writeCsv(output, summaries);
+        ParameterSweep.Summary best = summaries.getFirst();
+        for (ParameterSweep.Summary summary : summaries) {
+            if (summary.median() < best.median()) best = summary;
+        }
+        System.out.println("Best median " + best.median() + " with " + best.config() + " ("
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms in total, results in " + output + ")");
+    }
+}
@@ -0,0 +1,123 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class AdaptivePursuitTest {
+
+    @Test
+    void startsUniform() {
+        AdaptivePursuit pursuit = new AdaptivePursuit(4);
+        for (int arm = 0; arm < 4; arm++) assertEquals(0.25, pursuit.probability(arm), 1e-12);
+    }
+
+
+    @Test
+    void probabilitiesSumToOneAndNoArmStarves() {
+        int arms = 4;
+        AdaptivePursuit pursuit = new AdaptivePursuit(arms);
+        Rng random = new Rng(1);
+        double[] rewards = new double[arms + 2];
+        int[] counts = new int[arms + 2];
+        for (int generation = 0; generation < 1000; generation++) {
+            for (int arm = 0; arm < arms; arm++) { // at offset 2, as the selection arms come first in the GA
+                counts[2 + arm] = random.nextInt(3);
+                rewards[2 + arm] = counts[2 + arm] * random.nextDouble() * (arm + 1);
+            }
+            pursuit.update(rewards, counts, 2);
+            double sum = 0;
+            for (int arm = 0; arm < arms; arm++) {
+                double probability = pursuit.probability(arm);
+                assertTrue(probability >= 0.2 / arms - 1e-12, "arm " + arm + " starved: " + probability);
+                sum += probability;
+            }
+            assertEquals(1, sum, 1e-9);
+        }
+    }
+
+
+    @Test
+    void pursuesTheArmWithTheBestRewards() {
+        AdaptivePursuit pursuit = new AdaptivePursuit(3);
+        double[] rewards = {0.01, 0.05, 0.02};
+        int[] counts = {1, 1, 1};
+        for (int generation = 0; generation < 200; generation++) pursuit.update(rewards, counts, 0);
+        assertEquals(1 - 2 * 0.2 / 3, pursuit.probability(1), 1e-6); // the most it can get
+        assertEquals(0.2 / 3, pursuit.probability(0), 1e-6);
+        assertEquals(0.2 / 3, pursuit.probability(2), 1e-6);
+    }
+
+
+    @Test
+    void generationsWithoutApplicationsChangeNothing() {
+        AdaptivePursuit pursuit = new AdaptivePursuit(2);
+        pursuit.update(new double[]{1, 0}, new int[]{1, 1}, 0);
+        double before = pursuit.probability(0);
+        pursuit.update(new double[2], new int[2], 0);
+        assertEquals(before, pursuit.probability(0));
+    }
+
+
+    @Test
+    void choosesArmsWithTheirProbabilities() {
+        AdaptivePursuit pursuit = new AdaptivePursuit(2);
+        for (int generation = 0; generation < 200; generation++) {
+            pursuit.update(new double[]{0, 1}, new int[]{1, 1}, 0);
+        }
+        Rng random = new Rng(2);
+        int draws = 100000;
+        int chosen = 0;
+        for (int k = 0; k < draws; k++) chosen += pursuit.choose(random);
+        assertEquals(pursuit.probability(1), (double) chosen / draws, 0.01);
+    }
+
+
+    @Test
+    void stateRoundTrips() {
+        AdaptivePursuit pursuit = new AdaptivePursuit(3);
+        pursuit.update(new double[]{0.1, 0.3, 0.2}, new int[]{2, 1, 4}, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(pursuit.stateBytes());
+        pursuit.saveState(buffer);
+        assertEquals(0, buffer.remaining());
+        AdaptivePursuit restored = new AdaptivePursuit(3);
+        restored.restoreState(buffer.flip());
+        // the restored pursuit has to react to the next generation exactly like the original
+        double[] rewards = {0.4, 0.1, 0.1};
+        int[] counts = {1, 1, 1};
+        pursuit.update(rewards, counts, 0);
+        restored.update(rewards, counts, 0);
+        double[] expected = new double[3];
+        double[] actual = new double[3];
+        for (int arm = 0; arm < 3; arm++) {
+            expected[arm] = pursuit.probability(arm);
+            actual[arm] = restored.probability(arm);
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+
+    @Test
+    void adaptiveRunsAreReproducible() {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(60, new Rng(3));
+        SolverConfig config = SolverConfig.builder().seed(3).threads(2).adaptive(true)
+                .maxGenerationsWithNoImprovement(200).build(); // escalating and restarting every 50 generations
+        String[] descriptions = new String[2];
+        double[] distances = new double[2];
+        for (int run = 0; run < 2; run++) {
+            try (GeneticAlgorithm ga = new GeneticAlgorithm(distanceMatrix, config)) {
+                for (int generation = 0; generation < 1000; generation++) ga.evolvePopulation();
+                descriptions[run] = ga.describeOperatorProbabilities();
+                distances[run] = ga.getBestDistanceInPop();
+            }
+        }
+        assertEquals(descriptions[0], descriptions[1]);
+        assertEquals(distances[0], distances[1]);
+        assertTrue(descriptions[0].startsWith("TOURNAMENT "), descriptions[0]);
+    }
+}
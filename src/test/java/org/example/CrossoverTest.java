@@ -0,0 +1,154 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class CrossoverTest {
+
+    private static final int[] SIZES = {2, 3, 4, 7, 100};
+    private static final int TRIALS = 500;
+
+
+    @ParameterizedTest
+    @EnumSource(CrossoverType.class)
+    void childIsAPermutation(CrossoverType type) {
+        Rng random = new Rng(1);
+        for (int n : SIZES) {
+            Crossover crossover = type.create(n);
+            int[] parents = new int[3 * n];
+            int[] children = new int[3 * n];
+            for (int trial = 0; trial < TRIALS; trial++) {
+                randomTours(parents, 3, n, random);
+                Arrays.fill(children, -1); // marking the slices around the child
+                crossover.crossover(parents, 2 * n, 0, children, n, n, random); // parents in either order
+                TourConstructorTest.assertPermutation(children, n, n);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(-1, children[i], type + " wrote before the child");
+                    assertEquals(-1, children[2 * n + i], type + " wrote after the child");
+                }
+            }
+        }
+    }
+
+
+    @ParameterizedTest
+    @EnumSource(CrossoverType.class)
+    void crossingATourWithItselfGivesTheSameTour(CrossoverType type) {
+        Rng random = new Rng(2);
+        for (int n : SIZES) {
+            Crossover crossover = type.create(n);
+            int[] parents = new int[2 * n];
+            int[] child = new int[n];
+            for (int trial = 0; trial < TRIALS; trial++) {
+                randomTours(parents, 1, n, random);
+                System.arraycopy(parents, 0, parents, n, n);
+                crossover.crossover(parents, 0, n, child, 0, n, random);
+                assertEquals(edges(parents, 0, n), edges(child, 0, n), type + " with " + n + " cities");
+            }
+        }
+    }
+
+
+    @Test
+    void cycleCrossoverKeepsEveryPositionOfAParent() {
+        Rng random = new Rng(3);
+        for (int n : SIZES) {
+            Crossover crossover = new CycleCrossover(n);
+            int[] parents = new int[2 * n];
+            int[] child = new int[n];
+            for (int trial = 0; trial < TRIALS; trial++) {
+                randomTours(parents, 2, n, random);
+                crossover.crossover(parents, 0, n, child, 0, n, random);
+                for (int i = 0; i < n; i++) {
+                    assertTrue(child[i] == parents[i] || child[i] == parents[n + i],
+                            "city " + child[i] + " at position " + i + " is in neither parent there");
+                }
+            }
+        }
+    }
+
+
+    @Test
+    void edgeRecombinationOnlyLeavesTheParentEdgesAtDeadEnds() {
+        // Every edge of the child comes from a parent, unless all parent neighbours of its first city were
+        // visited already (the closing edge aside, which nobody chooses)
+        Rng random = new Rng(4);
+        for (int n : SIZES) {
+            Crossover crossover = new EdgeRecombinationCrossover(n);
+            int[] parents = new int[2 * n];
+            int[] child = new int[n];
+            for (int trial = 0; trial < TRIALS; trial++) {
+                randomTours(parents, 2, n, random);
+                Set<Long> parentEdges = edges(parents, 0, n);
+                parentEdges.addAll(edges(parents, n, n));
+                crossover.crossover(parents, 0, n, child, 0, n, random);
+                boolean[] visited = new boolean[n];
+                for (int i = 0; i < n - 1; i++) {
+                    visited[child[i]] = true;
+                    if (parentEdges.contains(edge(child[i], child[i + 1]))) continue;
+                    for (int c = 0; c < n; c++) {
+                        assertTrue(visited[c] || !parentEdges.contains(edge(child[i], c)),
+                                "left " + child[i] + " for " + child[i + 1] + " with parent neighbour " + c
+                                        + " unvisited");
+                    }
+                }
+            }
+        }
+    }
+
+
+    @Test
+    void edgeRecombinationKeepsMostParentEdges() {
+        // Dead ends are rare, so nearly every edge of a child of two random tours is inherited
+        int n = 200;
+        Rng random = new Rng(5);
+        Crossover crossover = new EdgeRecombinationCrossover(n);
+        int[] parents = new int[2 * n];
+        int[] child = new int[n];
+        int inherited = 0;
+        for (int trial = 0; trial < 100; trial++) {
+            randomTours(parents, 2, n, random);
+            Set<Long> parentEdges = edges(parents, 0, n);
+            parentEdges.addAll(edges(parents, n, n));
+            crossover.crossover(parents, 0, n, child, 0, n, random);
+            for (long edge : edges(child, 0, n)) if (parentEdges.contains(edge)) inherited++;
+        }
+        assertTrue(inherited > 0.9 * 100 * n, inherited + " of " + 100 * n + " edges inherited");
+    }
+
+
+    private static void randomTours(int[] tours, int count, int n, Rng random) {
+        for (int t = 0; t < count; t++) {
+            int offset = t * n;
+            for (int i = 0; i < n; i++) tours[offset + i] = i;
+            for (int i = n - 1; i > 0; i--) {
+                int k = random.nextInt(i + 1);
+                int city = tours[offset + i];
+                tours[offset + i] = tours[offset + k];
+                tours[offset + k] = city;
+            }
+        }
+    }
+
+
+    private static Set<Long> edges(int[] tours, int offset, int n) {
+        // The undirected edges of a tour, including the closing one
+        Set<Long> edges = new HashSet<>();
+        for (int i = 0; i < n; i++) edges.add(edge(tours[offset + i], tours[offset + (i + 1) % n]));
+        return edges;
+    }
+
+
+    private static long edge(int a, int b) {
+        return (long) Math.min(a, b) << 32 | Math.max(a, b);
+    }
+}
@@ -0,0 +1,218 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class InstanceReaderTest {
+
+    private static final String BURMA14 = """
+            NAME: burma14
+            TYPE: TSP
+            COMMENT: 14-Staedte in Burma (Zaw Win)
+            DIMENSION: 14
+            EDGE_WEIGHT_TYPE: GEO
+            EDGE_WEIGHT_FORMAT: FUNCTION\s
+            DISPLAY_DATA_TYPE: COORD_DISPLAY
+            NODE_COORD_SECTION
+               1  16.47       96.10
+               2  16.47       94.44
+               3  20.09       92.54
+               4  22.39       93.37
+               5  25.23       97.24
+               6  22.00       96.05
+               7  20.47       97.02
+               8  17.20       96.29
+               9  16.30       97.38
+              10  14.05       98.12
+              11  16.53       97.38
+              12  21.52       95.59
+              13  19.41       97.13
+              14  20.09       94.55
+            EOF
+            """;
+    // Symmetric weights of a five city instance, to write in every explicit format
+    private static final int[][] WEIGHTS = {
+            {0, 3, 7, 2, 9},
+            {3, 0, 4, 8, 1},
+            {7, 4, 0, 6, 5},
+            {2, 8, 6, 0, 11},
+            {9, 1, 5, 11, 0}};
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void geoInstanceHasItsKnownOptimum() throws IOException {
+        TspInstance instance = InstanceReader.read(write("burma.tsp", BURMA14));
+        assertEquals("burma14", instance.name()); // the NAME keyword wins over the file name
+        assertEquals(14, instance.size());
+        assertTrue(instance.hasCoordinates());
+        assertEquals(Metric.GEO, instance.distanceMatrix().getMetric());
+        int[] optimalTour = {1, 2, 14, 3, 4, 5, 6, 12, 7, 13, 8, 11, 9, 10};
+        for (int i = 0; i < optimalTour.length; i++) optimalTour[i]--;
+        assertEquals(3323, instance.distanceMatrix().tourLength(optimalTour, 0, optimalTour.length));
+    }
+
+
+    @Test
+    void roundingMetricsFollowTspLib() throws IOException {
+        // (0, 0) to (3, 4.4) is 5.44 long, (0, 0) to (10, 10) is sqrt(200 / 10) = 4.47 for ATT
+        String cities = "NODE_COORD_SECTION\n1 0 0\n2 3 4.4\n3 10 10\nEOF\n";
+        String header = "NAME: metric\nTYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: ";
+        assertEquals(5, InstanceReader.read(write("a.tsp", header + "EUC_2D\n" + cities)).distanceMatrix()
+                .distance(0, 1));
+        assertEquals(6, InstanceReader.read(write("b.tsp", header + "CEIL_2D\n" + cities)).distanceMatrix()
+                .distance(0, 1));
+        assertEquals(5, InstanceReader.read(write("c.tsp", header + "ATT\n" + cities)).distanceMatrix()
+                .distance(0, 2));
+    }
+
+
+    @Test
+    void nodesMayComeInAnyOrder() throws IOException {
+        TspInstance instance = InstanceReader.read(write("order.tsp", """
+                DIMENSION : 3
+                EDGE_WEIGHT_TYPE : EUC_2D
+                NODE_COORD_SECTION
+                3 20 0
+                1 0 0
+                2 10 0
+                """));
+        assertEquals("order", instance.name()); // no NAME, so the file name
+        assertEquals(20, instance.xs()[2]);
+        assertEquals(10, instance.distanceMatrix().distance(0, 1));
+    }
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {"FULL_MATRIX", "UPPER_ROW", "LOWER_ROW", "UPPER_DIAG_ROW", "LOWER_DIAG_ROW",
+            "UPPER_COL", "LOWER_COL", "UPPER_DIAG_COL", "LOWER_DIAG_COL"})
+    void everyExplicitFormatGivesTheSameMatrix(String format) throws IOException {
+        int n = WEIGHTS.length;
+        StringBuilder text = new StringBuilder("NAME: five\nTYPE: TSP\nDIMENSION: " + n
+                + "\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: " + format + "\nEDGE_WEIGHT_SECTION\n");
+        boolean column = format.endsWith("_COL");
+        boolean upper = format.startsWith("UPPER") != column; // a column format lists the opposite row triangle
+        boolean diagonal = format.contains("DIAG") || format.equals("FULL_MATRIX");
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                boolean listed = format.equals("FULL_MATRIX") || (upper ? j > i : j < i) || diagonal && i == j;
+                if (listed) text.append(WEIGHTS[i][j]).append(j % 2 == 0 ? " " : "\n  "); // lines break anywhere
+            }
+        }
+        text.append("\nEOF\n");
+        TspInstance instance = InstanceReader.read(write("five.tsp", text.toString()));
+        assertFalse(instance.hasCoordinates());
+        assertEquals(n, instance.size());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(WEIGHTS[i][j], instance.distanceMatrix().distance(i, j), format + " " + i + "," + j);
+            }
+        }
+    }
+
+
+    @Test
+    void explicitInstancesAreDrawnWithTheirDisplayData() throws IOException {
+        TspInstance instance = InstanceReader.read(write("shown.tsp", """
+                DIMENSION: 2
+                EDGE_WEIGHT_TYPE: EXPLICIT
+                EDGE_WEIGHT_FORMAT: UPPER_ROW
+                EDGE_WEIGHT_SECTION
+                 17
+                DISPLAY_DATA_SECTION
+                1 1.5 2.5
+                2 3.5 4.5
+                EOF
+                """));
+        assertTrue(instance.hasCoordinates());
+        assertEquals(3.5, instance.xs()[1]);
+        assertEquals(17, instance.distanceMatrix().distance(1, 0));
+    }
+
+
+    @Test
+    void csvWithHeaderAndIds() throws IOException {
+        TspInstance instance = InstanceReader.read(write("cities.csv", "id,x,y\n1,0,0\n2,3,4\n3,-3,4.0\n"));
+        assertEquals("cities", instance.name());
+        assertEquals(3, instance.size());
+        assertEquals(-3, instance.xs()[2]);
+        assertEquals(5, instance.distanceMatrix().distance(0, 1));
+        assertEquals(6, instance.distanceMatrix().distance(1, 2));
+    }
+
+
+    @Test
+    void csvWithoutHeaderOrIds() throws IOException {
+        // Semicolons, tabs and spaces separate fields as well, and the last line needs no line break
+        TspInstance instance = InstanceReader.read(write("plain.csv", "0.5;1.5\r\n2.5\t-1.5\n 7 , 8"));
+        assertEquals(3, instance.size());
+        assertEquals(0.5, instance.xs()[0]);
+        assertEquals(-1.5, instance.ys()[1]);
+        assertEquals(8, instance.ys()[2]);
+    }
+
+
+    @Test
+    void numbersInEveryForm() throws IOException {
+        String[] numbers = {"-1.5e2", "2.5E-1", "+3", "-0.0625", ".5", "7.", "1e+3", "0.12345678901234567891",
+                "123456789012345678", "4.9e-320"};
+        StringBuilder text = new StringBuilder();
+        for (String number : numbers) text.append(number).append(',').append(number).append('\n');
+        TspInstance instance = InstanceReader.read(write("numbers.csv", text.toString()));
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(Double.parseDouble(numbers[i]), instance.xs()[i], numbers[i]); // to the last bit
+        }
+    }
+
+
+    @Test
+    void malformedInputIsRejected() {
+        assertRejected("a.csv", "x,y\n");
+        assertRejected("b.csv", "1,2\n3\n");
+        assertRejected("c.csv", "1,2\n3,4x\n");
+        assertRejected("d.csv", "1,2\n3,4e\n");
+        assertRejected("e.csv", "1,2,3\n4,5\n");
+        assertRejected("f.tsp", "EDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n"); // no DIMENSION first
+        assertRejected("g.tsp", "DIMENSION: 2\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n1 1 1\n");
+        assertRejected("h.tsp", "DIMENSION: 2\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n3 1 1\n");
+        assertRejected("i.tsp", "DIMENSION: 2\nEDGE_WEIGHT_TYPE: MAN_2D\nNODE_COORD_SECTION\n1 0 0\n2 1 1\n");
+        assertRejected("j.tsp", "TYPE: ATSP\nDIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_SECTION\n0 1 2 0\n");
+        assertRejected("k.tsp", "DIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: FULL_MATRIX\n");
+        assertRejected("l.tsp", "DIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: UPPER_ROW\n"
+                + "EDGE_WEIGHT_SECTION\nseven\n");
+        assertRejected("m.tsp", "DIMENSION: 0\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n");
+        assertRejected("n.tsp", "DIMENSION: 2\nNODE_COORD_SECTION\n1 0 0\n2 1 1\n"); // no EDGE_WEIGHT_TYPE
+    }
+
+
+    @Test
+    void errorsNameTheLine() throws IOException {
+        Path file = write("bad.csv", "x,y\n1,2\n3,4\n5,six\n");
+        IOException error = assertThrows(IOException.class, () -> InstanceReader.read(file));
+        assertTrue(error.getMessage().contains("line 4"), error.getMessage());
+    }
+
+
+    private void assertRejected(String fileName, String text) {
+        assertThrows(IOException.class, () -> InstanceReader.read(write(fileName, text)), fileName);
+    }
+
+
+    private Path write(String fileName, String text) throws IOException {
+        return Files.writeString(directory.resolve(fileName), text);
+    }
+}
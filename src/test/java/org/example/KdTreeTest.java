@@ -0,0 +1,106 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class KdTreeTest {
+
+    private static final int CITIES = 2000;
+    private static final int K = 8;
+
+
+    @Test
+    void nearestMatchesBruteForce() {
+        double[] xs = new double[CITIES];
+        double[] ys = new double[CITIES];
+        randomCities(xs, ys, new Rng(1));
+        KdTree tree = new KdTree(xs, ys, K);
+        int[] found = new int[K];
+        for (int city = 0; city < CITIES; city++) {
+            assertEquals(K, tree.nearest(city, K, found));
+            double[] expected = bruteForceDistances(xs, ys, city, K);
+            for (int r = 0; r < K; r++) { // comparing distances, as ties may come in any order
+                assertEquals(expected[r], squaredDistance(xs, ys, city, found[r]), 0, "rank " + r + " of " + city);
+            }
+        }
+    }
+
+
+    @Test
+    void duplicateCoordinatesAreFound() {
+        double[] xs = {0, 0, 0, 5, 5};
+        double[] ys = {0, 0, 0, 5, 5};
+        KdTree tree = new KdTree(xs, ys, 4);
+        int[] found = new int[4];
+        assertEquals(4, tree.nearest(0, 4, found));
+        assertEquals(0, squaredDistance(xs, ys, 0, found[0]));
+        assertEquals(0, squaredDistance(xs, ys, 0, found[1]));
+        assertEquals(50, squaredDistance(xs, ys, 0, found[2]));
+    }
+
+
+    @Test
+    void removedCitiesAreSkippedUntilReset() {
+        double[] xs = new double[CITIES];
+        double[] ys = new double[CITIES];
+        Rng random = new Rng(2);
+        randomCities(xs, ys, random);
+        KdTree tree = new KdTree(xs, ys, K);
+        boolean[] removed = new boolean[CITIES];
+        for (int step = 0; step < CITIES; step++) {
+            double x = 1000 * random.nextDouble();
+            double y = 1000 * random.nextDouble();
+            int nearest = tree.nearestRemaining(x, y);
+            double best = Double.MAX_VALUE;
+            for (int city = 0; city < CITIES; city++) {
+                if (!removed[city]) best = Math.min(best, squaredDistance(xs, ys, city, x, y));
+            }
+            assertEquals(best, squaredDistance(xs, ys, nearest, x, y), 0);
+            tree.remove(nearest);
+            removed[nearest] = true;
+        }
+        assertEquals(-1, tree.nearestRemaining(500, 500));
+        tree.reset();
+        assertEquals(K, tree.nearest(0, K, new int[K]));
+    }
+
+
+    private static void randomCities(double[] xs, double[] ys, Rng random) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = 1000 * random.nextDouble();
+            ys[i] = 1000 * random.nextDouble();
+        }
+    }
+
+
+    private static double[] bruteForceDistances(double[] xs, double[] ys, int city, int k) {
+        // The k smallest squared distances from city to the other cities, ascending
+        double[] best = new double[k];
+        Arrays.fill(best, Double.MAX_VALUE);
+        for (int other = 0; other < xs.length; other++) {
+            if (other == city) continue;
+            double d = squaredDistance(xs, ys, city, other);
+            for (int r = k - 1; r >= 0 && d < best[r]; r--) {
+                if (r < k - 1) best[r + 1] = best[r];
+                best[r] = d;
+            }
+        }
+        return best;
+    }
+
+
+    private static double squaredDistance(double[] xs, double[] ys, int a, int b) {
+        return squaredDistance(xs, ys, a, xs[b], ys[b]);
+    }
+
+
+    private static double squaredDistance(double[] xs, double[] ys, int city, double x, double y) {
+        double dx = xs[city] - x;
+        double dy = ys[city] - y;
+        return dx * dx + dy * dy;
+    }
+}
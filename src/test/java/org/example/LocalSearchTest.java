@@ -0,0 +1,118 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class LocalSearchTest {
+
+    private static final int[] SIZES = {LocalSearch.MIN_CITIES, 9, 12, 50, 500};
+    private static final int[] NEIGHBOURS = {3, 10};
+    private static final int OFFSET = 5;
+
+
+    @Test
+    void improvedTourIsAShorterPermutationOfTheReturnedLength() {
+        Rng random = new Rng(1);
+        for (int n : SIZES) {
+            for (int k : NEIGHBOURS) {
+                for (int trial = 0; trial < 20; trial++) {
+                    DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(n, random);
+                    assertImproves(distanceMatrix, k, random, n + " cities, " + k + " neighbours");
+                }
+            }
+        }
+    }
+
+
+    @Test
+    void roundingAndExplicitDistancesAreHandledToo() {
+        // Integer distances have many ties, which must not make the search cycle or misreport the length
+        Rng random = new Rng(2);
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 60;
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(20);
+                ys[i] = random.nextInt(20);
+            }
+            assertImproves(new DistanceMatrix(xs, ys, Metric.EUC_2D), 8, random, "EUC_2D");
+            DistanceMatrix euclidean = new DistanceMatrix(xs, ys);
+            double[] weights = new double[n * n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) weights[i * n + j] = euclidean.distance(i, j);
+            }
+            assertImproves(DistanceMatrix.explicit(weights, n), 8, random, "explicit");
+        }
+    }
+
+
+    @Test
+    void improvingAgainFindsLittleLeft() {
+        // Don't-look bits may miss a few moves, so a second run can still gain, but only a little
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(300, new Rng(3));
+        LocalSearch localSearch = new LocalSearch(distanceMatrix, NeighbourLists.build(distanceMatrix, 8));
+        int[] tour = randomTour(300, new Rng(4));
+        double length = localSearch.improve(tour, 0, distanceMatrix.tourLength(tour, 0, 300));
+        double again = localSearch.improve(tour, 0, length);
+        assertEquals(distanceMatrix.tourLength(tour, 0, 300), again);
+        assertTrue(again <= length && again > 0.99 * length, length + " became " + again);
+    }
+
+
+    @Test
+    void randomToursGetMuchShorter() {
+        int n = 1000;
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(n, new Rng(5));
+        LocalSearch localSearch = new LocalSearch(distanceMatrix, NeighbourLists.build(distanceMatrix, 10));
+        int[] tour = randomTour(n, new Rng(6));
+        double before = distanceMatrix.tourLength(tour, 0, n);
+        double after = localSearch.improve(tour, 0, before);
+        // Random points in a square of side 1000 have optimal tours of about 0.7124 * sqrt(n * area)
+        assertTrue(after < 1.15 * 0.7124 * Math.sqrt(n * 1e6), "improved to " + after + " from " + before);
+    }
+
+
+    @Test
+    void smallToursAreLeftAlone() {
+        int n = LocalSearch.MIN_CITIES - 1;
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(n, new Rng(7));
+        LocalSearch localSearch = new LocalSearch(distanceMatrix, NeighbourLists.build(distanceMatrix, 3));
+        int[] tour = randomTour(n, new Rng(8));
+        int[] original = tour.clone();
+        assertEquals(123.0, localSearch.improve(tour, 0, 123.0)); // the length is not even looked at
+        assertArrayEquals(original, tour);
+    }
+
+
+    private static void assertImproves(DistanceMatrix distanceMatrix, int k, Rng random, String description) {
+        int n = distanceMatrix.size();
+        LocalSearch localSearch = new LocalSearch(distanceMatrix, NeighbourLists.build(distanceMatrix, k));
+        int[] tours = new int[OFFSET + n + 1];
+        tours[OFFSET + n] = -1; // marking the next slice
+        System.arraycopy(randomTour(n, random), 0, tours, OFFSET, n);
+        double before = distanceMatrix.tourLength(tours, OFFSET, n);
+        double after = localSearch.improve(tours, OFFSET, before);
+        TourConstructorTest.assertPermutation(tours, OFFSET, n);
+        assertEquals(distanceMatrix.tourLength(tours, OFFSET, n), after, description);
+        assertTrue(after <= before, description + ": " + before + " became " + after);
+        assertEquals(-1, tours[OFFSET + n], description + ": the next slice was touched");
+    }
+
+
+    private static int[] randomTour(int n, Rng random) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) tour[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int city = tour[i];
+            tour[i] = tour[k];
+            tour[k] = city;
+        }
+        return tour;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class MutationTest {
+
+    private static final int[] SIZES = {2, 3, 4, 5, 8, 200};
+    private static final double[] RATES = {0.01, 0.3, 1};
+    private static final int OFFSET = 3; // every route sits after another slice, as in a population buffer
+
+
+    @ParameterizedTest
+    @EnumSource(MutationType.class)
+    void reportedChangeMatchesTheTourLength(MutationType type) {
+        // Small routes reach both ends of the slice all the time, so moves over the closing edge (swaps
+        // with the first or last position, inversions ending there) are well covered
+        Mutation mutation = type.create();
+        Rng random = new Rng(1);
+        for (int n : SIZES) {
+            DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(n, random);
+            int[] routes = new int[OFFSET + n + 2];
+            Arrays.fill(routes, -1); // marking the neighbouring slices
+            for (int i = 0; i < n; i++) routes[OFFSET + i] = i;
+            for (double rate : RATES) {
+                for (int trial = 0; trial < 2000; trial++) {
+                    double before = distanceMatrix.tourLength(routes, OFFSET, n);
+                    double change = mutation.mutate(routes, OFFSET, n, rate, random, distanceMatrix);
+                    double after = distanceMatrix.tourLength(routes, OFFSET, n);
+                    assertEquals(after - before, change, 1e-9 * (1 + before),
+                            type + " with " + n + " cities at rate " + rate + ", trial " + trial);
+                    TourConstructorTest.assertPermutation(routes, OFFSET, n);
+                }
+            }
+            for (int i = 0; i < OFFSET; i++) assertEquals(-1, routes[i], "the slice before was touched");
+            assertEquals(-1, routes[OFFSET + n], "the slice after was touched");
+            assertEquals(-1, routes[OFFSET + n + 1], "the slice after was touched");
+        }
+    }
+
+
+    @ParameterizedTest
+    @EnumSource(MutationType.class)
+    void nothingChangesAtRateZero(MutationType type) {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(50, new Rng(2));
+        int[] route = new int[50];
+        for (int i = 0; i < 50; i++) route[i] = 49 - i;
+        assertEquals(0, type.create().mutate(route, 0, 50, 0, new Rng(3), distanceMatrix));
+        for (int i = 0; i < 50; i++) assertEquals(49 - i, route[i]);
+    }
+
+
+    @Test
+    void inversionOverTheEndsOfTheSliceKeepsTheDistanceRight() {
+        // Four cities on a square: every inversion that leaves the tour a square changes nothing, one that
+        // crosses it adds the diagonals; either way the reported change has to add up
+        DistanceMatrix distanceMatrix = new DistanceMatrix(new double[]{0, 1, 1, 0}, new double[]{0, 0, 1, 1});
+        int[] route = {0, 1, 2, 3};
+        Mutation mutation = new InversionMutation();
+        Rng random = new Rng(4);
+        double length = distanceMatrix.tourLength(route, 0, 4);
+        for (int trial = 0; trial < 1000; trial++) {
+            length += mutation.mutate(route, 0, 4, 0.5, random, distanceMatrix);
+            assertEquals(distanceMatrix.tourLength(route, 0, 4), length, 1e-9);
+        }
+    }
+}
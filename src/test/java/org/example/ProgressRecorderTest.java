@@ -0,0 +1,185 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ProgressRecorderTest {
+
+    private static final int RECENT = 7;
+    private static final int BUCKETS = 8;
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void recentWindowWrapsAround() {
+        ProgressRecorder recorder = new ProgressRecorder(5, 100);
+        for (int g = 0; g < 13; g++) recorder.record(1000 - g);
+        ProgressRecorder.Series series = recorder.getSeries();
+        assertEquals(8 + 5, series.size()); // generations 0..7 in buckets of one, 8..12 in the window
+        for (int p = 0; p < series.size(); p++) {
+            assertEquals(p, series.generations()[p]);
+            assertEquals(1000 - p, series.min()[p]);
+            assertEquals(1000 - p, series.max()[p]);
+            assertEquals(1000 - p, series.mean()[p]);
+        }
+        assertFalse(series.downsampled());
+        assertEquals(13, recorder.getGenerations());
+        assertEquals(988, recorder.getLast());
+    }
+
+
+    @Test
+    void bucketsSummariseTheRawSeries() {
+        // Every count up to well past a few merges, with values that go up and down
+        Rng random = new Rng(1);
+        for (int generations = 0; generations < 400; generations++) {
+            double[] raw = new double[generations];
+            ProgressRecorder recorder = new ProgressRecorder(RECENT, BUCKETS);
+            for (int g = 0; g < generations; g++) {
+                raw[g] = 100 + 50 * random.nextDouble();
+                recorder.record(raw[g]);
+            }
+            assertMatches(raw, recorder.getSeries());
+        }
+    }
+
+
+    @Test
+    void stateRoundTrips() {
+        Rng random = new Rng(2);
+        for (int generations : new int[]{0, 3, RECENT, 50, 1000}) {
+            ProgressRecorder original = new ProgressRecorder(RECENT, BUCKETS);
+            for (int g = 0; g < generations; g++) original.record(random.nextDouble());
+            ByteBuffer buffer = ByteBuffer.allocate(original.stateBytes());
+            original.saveState(buffer);
+            assertEquals(0, buffer.remaining(), "stateBytes() is off");
+            ProgressRecorder restored = new ProgressRecorder(RECENT, BUCKETS);
+            restored.restoreState(buffer.flip());
+            assertEquals(original.getGenerations(), restored.getGenerations());
+            assertEquals(original.getLast(), restored.getLast());
+            assertSeriesEquals(original.getSeries(), restored.getSeries());
+            // Both have to go on alike, across the ring buffer's wrap and the next merges:
+            for (int g = 0; g < 300; g++) {
+                double value = random.nextDouble();
+                original.record(value);
+                restored.record(value);
+            }
+            assertSeriesEquals(original.getSeries(), restored.getSeries());
+        }
+    }
+
+
+    @Test
+    void restoringIntoADifferentCapacityIsRejected() {
+        ProgressRecorder original = new ProgressRecorder(RECENT, BUCKETS);
+        for (int g = 0; g < 100; g++) original.record(g);
+        ByteBuffer buffer = ByteBuffer.allocate(original.stateBytes());
+        original.saveState(buffer);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ProgressRecorder(RECENT, 2 * BUCKETS).restoreState(buffer.flip()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ProgressRecorder(RECENT - 1, BUCKETS).restoreState(buffer.flip()));
+    }
+
+
+    @Test
+    void streamedFileHasEveryGeneration() throws IOException {
+        Path file = directory.resolve("history.csv");
+        try (ProgressRecorder recorder = new ProgressRecorder(RECENT, BUCKETS)) {
+            for (int g = 0; g < 5; g++) recorder.record(g + 0.5); // still in the window when streaming starts
+            recorder.streamTo(file, false);
+            for (int g = 5; g < 100; g++) recorder.record(g + 0.5);
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("generation,best_distance", lines.get(0));
+        assertEquals(101, lines.size());
+        for (int g = 0; g < 100; g++) assertEquals(g + "," + (g + 0.5), lines.get(g + 1));
+    }
+
+
+    @Test
+    void resumedStreamContinuesAtTheCheckpoint() throws IOException {
+        // Generations recorded after the checkpoint are cut off the file and recorded again on resumption
+        Path expectedFile = directory.resolve("expected.csv");
+        try (ProgressRecorder recorder = new ProgressRecorder(RECENT, BUCKETS)) {
+            recorder.streamTo(expectedFile, false);
+            for (int g = 0; g < 60; g++) recorder.record(g);
+        }
+        Path file = directory.resolve("resumed.csv");
+        ByteBuffer checkpoint;
+        try (ProgressRecorder interrupted = new ProgressRecorder(RECENT, BUCKETS)) {
+            interrupted.streamTo(file, false);
+            for (int g = 0; g < 40; g++) interrupted.record(g);
+            interrupted.flush();
+            checkpoint = ByteBuffer.allocate(interrupted.stateBytes());
+            interrupted.saveState(checkpoint);
+            for (int g = 40; g < 45; g++) interrupted.record(g);
+        }
+        try (ProgressRecorder resumed = new ProgressRecorder(RECENT, BUCKETS)) {
+            resumed.restoreState(checkpoint.flip());
+            resumed.streamTo(file, true);
+            for (int g = 40; g < 60; g++) resumed.record(g);
+        }
+        assertEquals(Files.readString(expectedFile), Files.readString(file));
+    }
+
+
+    private static void assertMatches(double[] raw, ProgressRecorder.Series series) {
+        // The generations that left the window fill buckets of the smallest power of two width that fits them
+        // into BUCKETS; each bucket has to hold the min, max and mean of its stretch of the raw series
+        int recent = Math.min(RECENT, raw.length);
+        int old = raw.length - recent;
+        int width = 1;
+        while ((long) width * BUCKETS < old) width *= 2;
+        int buckets = (old + width - 1) / width;
+        assertEquals(buckets + recent, series.size(), raw.length + " generations");
+        assertEquals(width > 1, series.downsampled());
+        for (int b = 0; b < buckets; b++) {
+            int from = b * width;
+            int to = Math.min(from + width, old);
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            double sum = 0;
+            for (int g = from; g < to; g++) {
+                min = Math.min(min, raw[g]);
+                max = Math.max(max, raw[g]);
+                sum += raw[g];
+            }
+            String point = "bucket " + b + " of " + raw.length + " generations";
+            assertEquals((from + to - 1) / 2.0, series.generations()[b], point);
+            assertEquals(min, series.min()[b], point);
+            assertEquals(max, series.max()[b], point);
+            assertEquals(sum / (to - from), series.mean()[b], 1e-9, point);
+        }
+        for (int i = 0; i < recent; i++) {
+            int g = old + i;
+            assertEquals(g, series.generations()[buckets + i]);
+            assertEquals(raw[g], series.mean()[buckets + i]);
+        }
+        assertTrue(series.size() <= RECENT + BUCKETS, "the history grew to " + series.size() + " points");
+    }
+
+
+    private static void assertSeriesEquals(ProgressRecorder.Series expected, ProgressRecorder.Series actual) {
+        assertArrayEquals(expected.generations(), actual.generations());
+        assertArrayEquals(expected.min(), actual.min());
+        assertArrayEquals(expected.max(), actual.max());
+        assertArrayEquals(expected.mean(), actual.mean());
+        assertEquals(expected.downsampled(), actual.downsampled());
+    }
+}
@@ -0,0 +1,134 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SelectionTest {
+
+    private static final int POPULATION_SIZE = 50;
+
+
+    @Test
+    void stochasticUniversalSamplingGivesEveryIndividualItsExpectedPicks() {
+        // With equal distances every individual is expected exactly twice among the 2n numbered draws
+        double[] distances = new double[POPULATION_SIZE];
+        Arrays.fill(distances, 100);
+        int[] picks = drawAll(new StochasticUniversalSelection(POPULATION_SIZE), distances, new Rng(1));
+        for (int i = 0; i < POPULATION_SIZE; i++) assertEquals(2, picks[i], "picks of individual " + i);
+    }
+
+
+    @Test
+    void stochasticUniversalSamplingStaysWithinOneOfTheExpectation() {
+        double[] distances = new double[POPULATION_SIZE];
+        double totalWeight = 0;
+        for (int i = 0; i < POPULATION_SIZE; i++) {
+            distances[i] = 50 + 7 * i;
+            totalWeight += 1 / distances[i];
+        }
+        Selection selection = new StochasticUniversalSelection(POPULATION_SIZE);
+        Rng random = new Rng(2);
+        for (int generation = 0; generation < 20; generation++) {
+            int[] picks = drawAll(selection, distances, random);
+            for (int i = 0; i < POPULATION_SIZE; i++) {
+                double expected = 2 * POPULATION_SIZE * (1 / distances[i]) / totalWeight;
+                assertTrue(Math.abs(picks[i] - expected) < 1 + 1e-9,
+                        "individual " + i + " picked " + picks[i] + " times, expected " + expected);
+            }
+        }
+    }
+
+
+    @Test
+    void twoWayTournamentBetweenTwoAlwaysPicksTheBetter() {
+        // Candidates are distinct, so with two individuals both always take part
+        double[] distances = {20, 10};
+        Selection selection = new TournamentSelection(2, 2);
+        Rng random = new Rng(3);
+        for (int k = 0; k < 1000; k++) assertEquals(1, selection.select(distances, random));
+    }
+
+
+    @Test
+    void fullTournamentAlwaysPicksTheBest() {
+        double[] distances = new double[POPULATION_SIZE];
+        for (int i = 0; i < POPULATION_SIZE; i++) distances[i] = 1000 - i;
+        Selection selection = new TournamentSelection(POPULATION_SIZE, POPULATION_SIZE + 5);
+        Rng random = new Rng(4);
+        for (int k = 0; k < 100; k++) assertEquals(POPULATION_SIZE - 1, selection.select(distances, random));
+    }
+
+
+    @Test
+    void tournamentWinsMatchSamplingWithoutReplacement() {
+        // In a 3-way tournament among 5 the worst can never win, and the best wins 3/5 of the time
+        double[] distances = {10, 20, 30, 40, 50};
+        Selection selection = new TournamentSelection(5, 3);
+        Rng random = new Rng(5);
+        int[] wins = new int[5];
+        int tournaments = 100000;
+        for (int k = 0; k < tournaments; k++) wins[selection.select(distances, random)]++;
+        assertEquals(0, wins[4] + wins[3]);
+        assertEquals(0.6, (double) wins[0] / tournaments, 0.01);
+        assertEquals(0.3, (double) wins[1] / tournaments, 0.01);
+    }
+
+
+    @Test
+    void largeTournamentsAllocateNothing() {
+        // The candidates of a tournament of more than two go into the scratch array of the worker's instance
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        double[] distances = new double[POPULATION_SIZE];
+        Rng random = new Rng(7);
+        for (int i = 0; i < POPULATION_SIZE; i++) distances[i] = 1 + 100 * random.nextDouble();
+        Selection selection = new TournamentSelection(POPULATION_SIZE, 7).forWorker();
+        int sum = 0;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int k = 0; k < 100000; k++) sum += selection.select(distances, random);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertTrue(sum > 0);
+        assertTrue(allocated < 10000, allocated + " bytes allocated by 100000 tournaments");
+    }
+
+
+    @Test
+    void workerCopiesOfTournamentsAreIndependent() {
+        Selection selection = SelectionType.MIXED.create(POPULATION_SIZE, 5);
+        assertTrue(selection.forWorker() != selection.forWorker());
+        Selection roulette = SelectionType.ROULETTE.create(POPULATION_SIZE, 5);
+        assertTrue(roulette.forWorker() == roulette, "roulette has no scratch state to copy");
+    }
+
+
+    @Test
+    void everySchemeReturnsValidIndices() {
+        double[] distances = new double[POPULATION_SIZE];
+        Rng random = new Rng(6);
+        for (int i = 0; i < POPULATION_SIZE; i++) distances[i] = 1 + 100 * random.nextDouble();
+        for (SelectionType type : SelectionType.values()) {
+            Selection selection = type.create(POPULATION_SIZE, 3);
+            selection.prepare(distances, random);
+            for (int draw = 0; draw < 4 * POPULATION_SIZE; draw++) {
+                int picked = selection.select(distances, draw, random);
+                assertTrue(picked >= 0 && picked < POPULATION_SIZE, type + " picked " + picked);
+                picked = selection.select(distances, random);
+                assertTrue(picked >= 0 && picked < POPULATION_SIZE, type + " picked " + picked);
+            }
+        }
+    }
+
+
+    private static int[] drawAll(Selection selection, double[] distances, Rng random) {
+        // Preparing a generation and making all of its 2n numbered draws
+        selection.prepare(distances, random);
+        int[] picks = new int[distances.length];
+        for (int draw = 0; draw < 2 * distances.length; draw++) picks[selection.select(distances, draw, random)]++;
+        return picks;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SocketMigrationLinkTest {
+
+    private static final int CITIES = 20;
+    private static final long TIMEOUT_MILLIS = 10000;
+
+
+    @Test
+    void batchesArriveWithLocallyComputedDistances() throws IOException, InterruptedException {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(1));
+        int[] routes = new int[3 * CITIES];
+        for (int i = 0; i < routes.length; i++) routes[i] = (i * 7) % CITIES; // 7 and 20 are coprime
+        try (SocketMigrationLink receiver = SocketMigrationLink.open(0, 0, distanceMatrix);
+             SocketMigrationLink sender = SocketMigrationLink.open(0, receiver.getLocalPort(), distanceMatrix)) {
+            sender.send(routes, 1, 2); // the second and the third route
+            SocketMigrationLink.Batch batch = awaitBatch(receiver);
+            assertNotNull(batch, "no batch arrived");
+            assertEquals(2, batch.count());
+            assertArrayEquals(Arrays.copyOfRange(routes, CITIES, 3 * CITIES), batch.routes());
+            assertEquals(distanceMatrix.tourLength(routes, CITIES, CITIES), batch.distances()[0]);
+        }
+    }
+
+
+    @Test
+    void invalidRoutesDropTheConnection() throws IOException, InterruptedException {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(2));
+        try (SocketMigrationLink receiver = SocketMigrationLink.open(0, 0, distanceMatrix)) {
+            int[] repeated = new int[CITIES];
+            for (int i = 0; i < CITIES; i++) repeated[i] = i;
+            repeated[5] = 4; // not a permutation
+            assertDropped(receiver, CITIES, 1, repeated);
+            int[] outOfRange = repeated.clone();
+            outOfRange[5] = CITIES;
+            assertDropped(receiver, CITIES, 1, outOfRange);
+            assertDropped(receiver, CITIES + 1, 1, new int[0]); // another instance
+            assertDropped(receiver, CITIES, Integer.MAX_VALUE, new int[0]); // more routes than a batch may hold
+            assertDropped(receiver, CITIES, -1, new int[0]);
+            assertNull(receiver.poll());
+        }
+    }
+
+
+    @Test
+    @Timeout(30) // a blocking send hangs instead of failing
+    void stalledPeerNeverBlocksTheSender() throws IOException {
+        // The peer accepts the connection but never reads, so the socket buffers fill up after a few batches
+        int cities = 5000;
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(cities, new Rng(3));
+        int[] routes = new int[16 * cities];
+        for (int i = 0; i < routes.length; i++) routes[i] = i % cities;
+        try (ServerSocket stalledPeer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+             SocketMigrationLink sender = SocketMigrationLink.open(0, stalledPeer.getLocalPort(), distanceMatrix)) {
+            long start = System.nanoTime();
+            for (int k = 0; k < 200; k++) sender.send(routes, 0, 16); // 32 MB in all
+            assertTrue(System.nanoTime() - start < TIMEOUT_MILLIS * 1_000_000, "sending blocked");
+        } // closing the link must not hang on the sender thread either
+    }
+
+
+    private static void assertDropped(SocketMigrationLink receiver, int cities, int count, int[] route)
+            throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), receiver.getLocalPort())) {
+            socket.setSoTimeout((int) TIMEOUT_MILLIS);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(cities);
+            out.writeInt(count);
+            for (int city : route) out.writeChar(city);
+            out.flush();
+            InputStream in = socket.getInputStream();
+            try {
+                assertEquals(-1, in.read(), "the connection was kept open");
+            } catch (SocketException e) {
+                // reset by the receiver, which is just as good
+            }
+        }
+    }
+
+
+    private static SocketMigrationLink.Batch awaitBatch(SocketMigrationLink link) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        SocketMigrationLink.Batch batch;
+        while ((batch = link.poll()) == null && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        return batch;
+    }
+}
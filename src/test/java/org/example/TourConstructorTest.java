@@ -0,0 +1,138 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TourConstructorTest {
+
+    private static final int CITIES = 1000;
+    private static final InitialTourType[] CONSTRUCTIONS = {InitialTourType.NEAREST_NEIGHBOUR,
+            InitialTourType.GREEDY, InitialTourType.SPACE_FILLING_CURVE};
+
+
+    @Test
+    void everyConstructionIsAPermutation() {
+        DistanceMatrix distanceMatrix = randomInstance(CITIES, new Rng(1));
+        TourConstructor constructor = new TourConstructor(distanceMatrix);
+        int[] tours = new int[CITIES + 7];
+        for (InitialTourType type : CONSTRUCTIONS) {
+            constructor.construct(type, 3, tours, 7); // at an offset, as in a population buffer
+            assertPermutation(tours, 7, CITIES);
+        }
+    }
+
+
+    @Test
+    void constructionsBeatRandomTours() {
+        DistanceMatrix distanceMatrix = randomInstance(CITIES, new Rng(2));
+        TourConstructor constructor = new TourConstructor(distanceMatrix);
+        int[] tour = new int[CITIES];
+        for (int i = 0; i < CITIES; i++) tour[i] = i; // the cities are random, so is their order
+        double randomLength = distanceMatrix.tourLength(tour, 0, CITIES);
+        for (InitialTourType type : CONSTRUCTIONS) {
+            constructor.construct(type, 0, tour, 0);
+            double length = distanceMatrix.tourLength(tour, 0, CITIES);
+            assertTrue(length < randomLength / 10, type + " tour of length " + length);
+        }
+    }
+
+
+    @Test
+    void nearestNeighbourStartsAtTheStartCity() {
+        DistanceMatrix distanceMatrix = randomInstance(100, new Rng(3));
+        int[] tour = new int[100];
+        new TourConstructor(distanceMatrix).construct(InitialTourType.NEAREST_NEIGHBOUR, 42, tour, 0);
+        assertEquals(42, tour[0]);
+    }
+
+
+    @Test
+    void explicitMatricesGetNearestNeighbourTours() {
+        int size = 50;
+        DistanceMatrix coordinates = randomInstance(size, new Rng(4));
+        double[] weights = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) weights[i * size + j] = coordinates.distance(i, j);
+        }
+        DistanceMatrix explicit = DistanceMatrix.explicit(weights, size);
+        int[] tour = new int[size];
+        for (InitialTourType type : CONSTRUCTIONS) {
+            new TourConstructor(explicit).construct(type, 5, tour, 0);
+            assertPermutation(tour, 0, size);
+            assertEquals(5, tour[0]);
+        }
+    }
+
+
+    @Test
+    void kickKeepsAPermutationAndChangesAtMostThreeEdges() {
+        int size = 200;
+        Rng random = new Rng(5);
+        int[] tour = new int[size];
+        for (int i = 0; i < size; i++) tour[i] = i;
+        for (int k = 0; k < 1000; k++) {
+            Set<Long> before = edges(tour, size);
+            TourConstructor.kick(tour, 0, size, random);
+            assertPermutation(tour, 0, size);
+            Set<Long> after = edges(tour, size);
+            after.removeAll(before);
+            assertTrue(after.size() <= 3, after.size() + " new edges");
+        }
+    }
+
+
+    @Test
+    void seededPopulationsConsistOfPermutationsWithTheirDistances() {
+        DistanceMatrix distanceMatrix = randomInstance(300, new Rng(6));
+        SolverConfig config = SolverConfig.builder().seed(6).initialTours(InitialTourType.MIXED)
+                .seededFraction(1).build();
+        try (GeneticAlgorithm ga = new GeneticAlgorithm(distanceMatrix, config)) {
+            int populationSize = ga.getPopulationSize();
+            int[] routes = new int[populationSize * 300];
+            double[] distances = new double[populationSize];
+            ga.copyBestIndividuals(populationSize, routes, 0, distances, 0);
+            for (int i = 0; i < populationSize; i++) {
+                assertPermutation(routes, i * 300, 300);
+                assertEquals(distanceMatrix.tourLength(routes, i * 300, 300), distances[i], 1e-6);
+            }
+        }
+    }
+
+
+    static DistanceMatrix randomInstance(int size, Rng random) {
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = 1000 * random.nextDouble();
+            ys[i] = 1000 * random.nextDouble();
+        }
+        return new DistanceMatrix(xs, ys);
+    }
+
+
+    static void assertPermutation(int[] tours, int offset, int numberOfCities) {
+        boolean[] seen = new boolean[numberOfCities];
+        for (int i = offset; i < offset + numberOfCities; i++) {
+            int city = tours[i];
+            assertTrue(city >= 0 && city < numberOfCities && !seen[city], "city " + city + " at " + (i - offset));
+            seen[city] = true;
+        }
+    }
+
+
+    private static Set<Long> edges(int[] tour, int size) {
+        Set<Long> edges = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            int a = tour[i];
+            int b = tour[(i + 1) % size];
+            edges.add(a < b ? (long) a << 32 | b : (long) b << 32 | a);
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TourHashTest {
+
+    private static final int CITIES = 50;
+
+
+    @Test
+    void rotationsAndReversalsHashAlike() {
+        int[] tour = randomTour(CITIES, new Rng(1));
+        long hash = TourHash.of(tour, 0, CITIES);
+        int[] other = new int[CITIES + 3];
+        for (int shift = 0; shift < CITIES; shift++) {
+            for (int i = 0; i < CITIES; i++) other[3 + i] = tour[(i + shift) % CITIES];
+            assertEquals(hash, TourHash.of(other, 3, CITIES), "rotation by " + shift);
+            for (int i = 0; i < CITIES; i++) other[3 + i] = tour[(shift - i + CITIES) % CITIES];
+            assertEquals(hash, TourHash.of(other, 3, CITIES), "reversal rotated by " + shift);
+        }
+    }
+
+
+    @Test
+    void differentToursHashDifferently() {
+        // Every 2-opt move changes two edges and must change the hash
+        int[] tour = randomTour(CITIES, new Rng(2));
+        long hash = TourHash.of(tour, 0, CITIES);
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 1; i < CITIES - 1; i++) {
+            for (int j = i + 1; j < CITIES; j++) {
+                if (i == 1 && j == CITIES - 1) continue; // reversing all but one city is the same cycle
+                int[] moved = tour.clone();
+                for (int a = i, b = j; a < b; a++, b--) {
+                    int tmp = moved[a];
+                    moved[a] = moved[b];
+                    moved[b] = tmp;
+                }
+                long movedHash = TourHash.of(moved, 0, CITIES);
+                assertNotEquals(hash, movedHash, "2-opt move " + i + ", " + j);
+                hashes.add(movedHash);
+            }
+        }
+        assertTrue(hashes.size() > 1100, hashes.size() + " distinct hashes");
+    }
+
+
+    @Test
+    void hashIsNeverZero() {
+        Rng random = new Rng(3);
+        for (int k = 0; k < 1000; k++) {
+            int size = 2 + random.nextInt(20);
+            assertNotEquals(0, TourHash.of(randomTour(size, random), 0, size));
+        }
+    }
+
+
+    @Test
+    void deduplicatedPopulationsHaveDistinctTours() {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(4));
+        SolverConfig config = SolverConfig.builder().seed(4).deduplicate(true)
+                .initialTours(InitialTourType.GREEDY).build();
+        try (GeneticAlgorithm ga = new GeneticAlgorithm(distanceMatrix, config)) {
+            for (int generation = 0; generation < 500; generation++) ga.evolvePopulation();
+            int populationSize = ga.getPopulationSize();
+            int[] routes = new int[populationSize * CITIES];
+            double[] distances = new double[populationSize];
+            ga.copyBestIndividuals(populationSize, routes, 0, distances, 0);
+            Set<Long> hashes = new HashSet<>();
+            for (int i = 0; i < populationSize; i++) {
+                TourConstructorTest.assertPermutation(routes, i * CITIES, CITIES);
+                assertEquals(distanceMatrix.tourLength(routes, i * CITIES, CITIES), distances[i], 1e-6);
+                hashes.add(TourHash.of(routes, i * CITIES, CITIES));
+            }
+            assertEquals(populationSize, hashes.size());
+        }
+    }
+
+
+    private static int[] randomTour(int size, Rng random) {
+        int[] tour = new int[size];
+        for (int i = 0; i < size; i++) tour[i] = i;
+        for (int i = size - 1; i > 0; i--) { // Fisher-Yates
+            int k = random.nextInt(i + 1);
+            int tmp = tour[i];
+            tour[i] = tour[k];
+            tour[k] = tmp;
+        }
+        return tour;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TspSolverTest {
+
+    private static final int CITIES = 60;
+    private static final int GENERATIONS = 3000;
+    private static final int STOP = 1234; // not a multiple of the checkpoint interval
+    private static final int CHECKPOINT_INTERVAL = 100;
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void resumedRunFinishesLikeAnUninterruptedOne() throws IOException {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(1));
+        SolverConfig config = config(1).build();
+        TspSolver uninterrupted = new TspSolver(distanceMatrix, config);
+        uninterrupted.streamHistoryTo(directory.resolve("full.csv"));
+        SolverResult expected = uninterrupted.solve();
+
+        // Stopping the same run at STOP generations, then resuming it with the full limit:
+        Path checkpoint = directory.resolve("run.checkpoint");
+        TspSolver stopped = new TspSolver(distanceMatrix, config.toBuilder().maxGenerations(STOP).build());
+        stopped.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+        stopped.streamHistoryTo(directory.resolve("resumed.csv"));
+        assertEquals(STOP, stopped.solve().getGenerations());
+        TspSolver resumed = new TspSolver(distanceMatrix, config);
+        resumed.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+        resumed.streamHistoryTo(directory.resolve("resumed.csv"));
+        SolverResult actual = resumed.solve();
+
+        assertEquals(expected.getGenerations(), actual.getGenerations());
+        assertEquals(expected.getGenWithBestDistance(), actual.getGenWithBestDistance());
+        assertEquals(expected.getBestDistance(), actual.getBestDistance());
+        assertArrayEquals(expected.getBestRoute(), actual.getBestRoute());
+        assertArrayEquals(expected.getBestDistanceHistory().min(), actual.getBestDistanceHistory().min());
+        assertEquals(Files.readString(directory.resolve("full.csv")),
+                Files.readString(directory.resolve("resumed.csv")));
+    }
+
+
+    @Test
+    void corruptCheckpointIsRejected() throws IOException {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(2));
+        Path checkpoint = writeCheckpoint(distanceMatrix, config(2).build());
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        bytes[bytes.length / 2] ^= 1; // a single flipped bit in the middle of the payload
+        Files.write(checkpoint, bytes);
+        TspSolver solver = new TspSolver(distanceMatrix, config(2).build());
+        solver.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+        UncheckedIOException error = assertThrows(UncheckedIOException.class, solver::solve);
+        assertTrue(error.getCause().getMessage().contains("CRC"), error.getCause().getMessage());
+    }
+
+
+    @Test
+    void truncatedCheckpointIsRejected() throws IOException {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(3));
+        Path checkpoint = writeCheckpoint(distanceMatrix, config(3).build());
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length - 10));
+        TspSolver solver = new TspSolver(distanceMatrix, config(3).build());
+        solver.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+        assertThrows(UncheckedIOException.class, solver::solve);
+    }
+
+
+    @Test
+    void checkpointOfADifferentRunIsRejected() throws IOException {
+        DistanceMatrix distanceMatrix = TourConstructorTest.randomInstance(CITIES, new Rng(4));
+        SolverConfig config = config(4).build();
+        Path checkpoint = writeCheckpoint(distanceMatrix, config);
+        SolverConfig[] mismatches = {
+                config.toBuilder().seed(5).build(),
+                config.toBuilder().populationSize(120).build(),
+                config.toBuilder().threads(2).build(),
+                config.toBuilder().adaptive(false).build()};
+        for (SolverConfig mismatch : mismatches) {
+            TspSolver solver = new TspSolver(distanceMatrix, mismatch);
+            solver.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+            assertThrows(IllegalArgumentException.class, solver::solve, mismatch.toString());
+        }
+        TspSolver otherInstance = new TspSolver(TourConstructorTest.randomInstance(CITIES + 1, new Rng(4)), config);
+        otherInstance.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+        assertThrows(IllegalArgumentException.class, otherInstance::solve);
+    }
+
+
+    private static SolverConfig.Builder config(long seed) {
+        return SolverConfig.builder()
+                .populationSize(100)
+                .eliteSize(10)
+                .threads(3)
+                .seed(seed)
+                .adaptive(true)
+                .deduplicate(true)
+                .maxGenerations(GENERATIONS);
+    }
+
+
+    private Path writeCheckpoint(DistanceMatrix distanceMatrix, SolverConfig config) {
+        Path checkpoint = directory.resolve("run.checkpoint");
+        TspSolver solver = new TspSolver(distanceMatrix, config.toBuilder().maxGenerations(STOP).build());
+        solver.enableCheckpoints(checkpoint, CHECKPOINT_INTERVAL);
+        solver.solve();
+        return checkpoint;
+    }
+}